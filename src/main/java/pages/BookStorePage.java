@@ -1,13 +1,15 @@
 package pages;
 
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import utilities.SelUtil;
 import utilities.SeleniumTestBase;
+import utilities.StepMemo;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -19,6 +21,13 @@ import java.util.List;
 public class BookStorePage extends SeleniumTestBase {
 	WebDriver driver;
 
+	/**
+	 * Constructor to initialize the BookStorePage with the WebDriver bound to the current thread.
+	 */
+	public BookStorePage() {
+		this(getDriver());
+	}
+
 	/**
 	 * Constructor to initialize the BookStorePage with a WebDriver instance.
 	 * @param driver The WebDriver instance used to interact with the web page.
@@ -42,6 +51,10 @@ public class BookStorePage extends SeleniumTestBase {
 	@FindBy(xpath = "//button[@id='submit']")
 	public WebElement logoutButton;
 
+	/** Book titles read once per step, so repeated reads within a step cost no WebDriver calls. */
+	private final StepMemo<List<String>> bookTitleSnapshot =
+			new StepMemo<>(() -> Collections.unmodifiableList(SelUtil.getTexts(bookTitles)));
+
 	/**
 	 * Checks if the search box is displayed on the page.
 	 * @return true if the search box is displayed, false otherwise.
@@ -51,21 +64,31 @@ public class BookStorePage extends SeleniumTestBase {
 	}
 
 	/**
-	 * Retrieves the titles of all books displayed on the page.
+	 * Checks whether the page shows a logged-in user, i.e. the logout button appears within a few seconds.
+	 * @return true if a user is logged in, false otherwise.
+	 */
+	public boolean isLoggedIn() {
+		try {
+			return SelUtil.waitForElementToBeVisible(logoutButton, 5) != null;
+		} catch (TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Retrieves the titles of all books displayed on the page with a single script execution.
+	 * The result is memoised for the current step.
 	 * @return A list of book titles as Strings.
 	 */
 	public List<String> getBookTitles() {
-		List<String> titles = new ArrayList<>();
-		for (WebElement bookTitle : bookTitles) {
-			titles.add(bookTitle.getText());
-		}
-		return titles;
+		return bookTitleSnapshot.get();
 	}
 
 	/**
 	 * Clicks the logout button to log out of the application.
 	 */
 	public void clickLogoutButton() {
+		bookTitleSnapshot.invalidate();
 		SelUtil.clickElement(logoutButton);
 	}
 }
\ No newline at end of file
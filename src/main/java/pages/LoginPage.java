@@ -5,6 +5,9 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import utilities.PageReadiness;
 import utilities.SelUtil;
 import utilities.SeleniumTestBase;
 
@@ -13,9 +16,16 @@ import utilities.SeleniumTestBase;
  * It provides methods to interact with the login page elements and perform actions like entering credentials and logging in.
  * This class uses the Page Object Model (POM) design pattern.
  */
-public class LoginPage extends SeleniumTestBase {
+public class LoginPage extends SeleniumTestBase implements PageReadiness {
 	WebDriver driver;
 
+	/**
+	 * Constructor to initialize the LoginPage with the WebDriver bound to the current thread.
+	 */
+	public LoginPage() {
+		this(getDriver());
+	}
+
 	/**
 	 * Constructor to initialize the LoginPage with a WebDriver instance.
 	 * @param driver The WebDriver instance used to interact with the web page.
@@ -51,12 +61,22 @@ public class LoginPage extends SeleniumTestBase {
 	@FindBy(id = "name")
 	public WebElement error_message;
 
+	/**
+	 * The landing page is ready as soon as the Book Store Application card can be clicked.
+	 * @return The readiness condition of the landing page.
+	 */
+	@Override
+	public ExpectedCondition<?> readinessCondition() {
+		return ExpectedConditions.elementToBeClickable(bookStoreApplication);
+	}
+
 	/**
 	 * Navigates to the Book Store Application and clicks the login button.
+	 * Returns from navigation as soon as the landing page is ready rather than after every subresource has loaded.
 	 * @param url The URL of the Book Store Application.
 	 */
 	public void NavigateToBookStoreApplication(String url) {
-		driver.get(url);
+		SelUtil.navigate(url, this);
 		SelUtil.clickElement(bookStoreApplication);
 		SelUtil.clickElement(login_button);
 	}
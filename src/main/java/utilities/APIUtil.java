@@ -1,34 +1,88 @@
 package utilities;
 
-import io.restassured.RestAssured;
 import io.restassured.http.Header;
 import io.restassured.response.Response;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * APIUtil provides utility methods for making HTTP requests using RestAssured.
+ * Requests go through the pooled ApiClient and never change global RestAssured settings, so they are thread-safe.
  * Extends BaseClass to utilize common logging functionality.
+ * Requests can be redirected to another host, e.g. the local ApiStubServer, keeping their path and query.
+ * getResponses sends many GET requests at once on a bounded thread pool and returns them in input order with their timings.
+ * GET requests without extra headers can be served from the opt-in ApiResponseCache.
  *
  * @see BaseClass
- * @see RestAssured
+ * @see ApiClient
  * @see Response
  * @see Header
+ * @see ApiStubServer
+ * @see ApiResponseCache
  *
  * @author ashish-khandelwal01
  */
 public class APIUtil extends BaseClass{
 
+    private static volatile String redirectBase;
+
+    /**
+     * Sends every following request to another host, keeping its path and query.
+     *
+     * @param baseUrl The scheme, host and port to send requests to, e.g. http://127.0.0.1:8089, or null to stop redirecting.
+     */
+    public static void redirectTo(String baseUrl) {
+        redirectBase = baseUrl;
+    }
+
+    /**
+     * Applies the redirection set by redirectTo to a request URL.
+     *
+     * @param url The URL of the request.
+     * @return The URL to send the request to.
+     */
+    static String resolve(String url) {
+        String base = redirectBase;
+        if (base == null) {
+            return url;
+        }
+        URI uri = URI.create(url);
+        return base + uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+    }
+
     /**
-     * Sends a GET request to the specified URL.
+     * Sends a GET request to the specified URL, or reuses its cached response when the response cache is enabled.
      *
      * @param url The URL to send the GET request to.
      * @return The response from the GET request.
+     * @see ApiResponseCache
      */
     public static Response getResponse(String url){
-        RestAssured.baseURI = url;
-        return RestAssured.given()
-                .header("Content-Type", "application/json")
-                .when()
-                .get(url);
+        return getResponse(url, ApiResponseCache.caller());
+    }
+
+    /**
+     * Sends a GET request to the specified URL through the response cache, on behalf of a scenario whose
+     * state was captured on its own thread.
+     *
+     * @param url The URL to send the GET request to.
+     * @param caller The cache bypass flag and counters of the scenario.
+     * @return The response from the GET request.
+     */
+    static Response getResponse(String url, ApiResponseCache.Caller caller){
+        String target = resolve(url);
+        return FlightEvents.timed("APIUtil", "GET", caller.scenario,
+                () -> ApiResponseCache.get(target, caller, validators -> ApiClient.request()
+                        .header("Content-Type", "application/json")
+                        .headers(validators)
+                        .when()
+                        .get(target)));
     }
 
     /**
@@ -39,12 +93,11 @@ public class APIUtil extends BaseClass{
      * @return The response from the POST request.
      */
     public static Response postResponse(String url, String body){
-        RestAssured.baseURI = url;
-        return RestAssured.given()
+        return FlightEvents.timed("APIUtil", "POST", () -> ApiClient.request()
                 .header("Content-Type", "application/json")
                 .body(body)
                 .when()
-                .post(url);
+                .post(resolve(url)));
     }
 
     /**
@@ -55,12 +108,11 @@ public class APIUtil extends BaseClass{
      * @return The response from the GET request.
      */
     public static Response getResponse(String url, Header header){
-        RestAssured.baseURI = url;
-        return RestAssured.given()
+        return FlightEvents.timed("APIUtil", "GET", () -> ApiClient.request()
                 .header("Content-Type", "application/json")
                 .header(header)
                 .when()
-                .get(url);
+                .get(resolve(url)));
     }
 
     /**
@@ -72,12 +124,11 @@ public class APIUtil extends BaseClass{
      * @return The response from the POST request.
      */
     public static Response postResponse(String url, String body, Header header){
-        RestAssured.baseURI = url;
-        return RestAssured.given()
+        return FlightEvents.timed("APIUtil", "POST", () -> ApiClient.request()
                 .header(header)
                 .body(body)
                 .when()
-                .post(url);
+                .post(resolve(url)));
     }
 
     /**
@@ -87,11 +138,116 @@ public class APIUtil extends BaseClass{
      * @return The response from the DELETE request.
      */
     public static Response deleteResponse(String url) {
-        RestAssured.baseURI = url;
-        System.out.println("URL: " + url);
-        return RestAssured.given()
+        String target = resolve(url);
+        System.out.println("URL: " + target);
+        return FlightEvents.timed("APIUtil", "DELETE", () -> ApiClient.request()
                 .header("Content-Type", "application/json")
                 .when()
-                .delete(url);
+                .delete(target));
+    }
+
+    /**
+     * Result of one request of a fan-out: the response or the error, and how long the request took.
+     */
+    public static class TimedResponse {
+        private final String url;
+        private final Response response;
+        private final Exception error;
+        private final long durationMillis;
+
+        TimedResponse(String url, Response response, Exception error, long durationMillis) {
+            this.url = url;
+            this.response = response;
+            this.error = error;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * Retrieves the requested URL.
+         *
+         * @return The URL as passed to getResponses.
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Retrieves the response.
+         *
+         * @return The response, or null if the request failed.
+         */
+        public Response getResponse() {
+            return response;
+        }
+
+        /**
+         * Retrieves the error of a failed request.
+         *
+         * @return The exception thrown by the request, or null if it got a response.
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         * Retrieves the duration of the request, excluding time spent waiting for a free thread.
+         *
+         * @return The duration in milliseconds.
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    /**
+     * Sends GET requests to several URLs concurrently, with at most api_fanout_concurrency requests in flight at a time.
+     *
+     * @param urls The URLs to send GET requests to.
+     * @return The results in the order of the URLs.
+     */
+    public static List<TimedResponse> getResponses(List<String> urls) {
+        return getResponses(urls, ConfigReader.getInt("api_fanout_concurrency", 8));
+    }
+
+    /**
+     * Sends GET requests to several URLs concurrently on a pool of at most concurrency platform threads.
+     * Like LoadGenerator it does not use virtual threads: RestAssured's Groovy runtime pins them while it loads
+     * classes, and the number of requests in flight is capped anyway, so they would save nothing.
+     * A failed request does not stop the others; its error is returned in its result.
+     * The requests use the response cache as the calling scenario would, including its bypass.
+     *
+     * @param urls The URLs to send GET requests to.
+     * @param concurrency The maximum number of requests in flight at a time.
+     * @return The results in the order of the URLs.
+     */
+    public static List<TimedResponse> getResponses(List<String> urls, int concurrency) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("APIUtil", "GET fan-out");
+        ApiResponseCache.Caller caller = ApiResponseCache.caller();
+        List<Future<TimedResponse>> futures = new ArrayList<>(urls.size());
+        int threads = Math.max(1, Math.min(concurrency, urls.size()));
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (String url : urls) {
+                futures.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return new TimedResponse(url, getResponse(url, caller), null, (System.nanoTime() - start) / 1_000_000);
+                    } catch (Exception e) {
+                        return new TimedResponse(url, null, e, (System.nanoTime() - start) / 1_000_000);
+                    }
+                }));
+            }
+            List<TimedResponse> results = new ArrayList<>(urls.size());
+            for (Future<TimedResponse> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for concurrent requests", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Concurrent request failed", e.getCause());
+        } finally {
+            call.commit();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package utilities;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ApiClient is the HTTP engine behind APIUtil. Every request starts from an immutable base specification that never
+ * touches the global RestAssured settings, so API scenarios can run in parallel, and every request goes through one
+ * shared, thread-safe HTTP client with a keep-alive connection pool, so repeated calls to a host reuse open
+ * (TLS) connections instead of connecting again. The pool counts connections opened and reused.
+ * While ApiStubServer is recording, every exchange is captured on its way back.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>api_pool_max_total - maximum open connections over all hosts</li>
+ *     <li>api_pool_max_per_host - default maximum open connections per host</li>
+ *     <li>api_pool_max_per_host.&lt;host&gt; - maximum open connections to one host, e.g. api_pool_max_per_host.demoqa.com</li>
+ *     <li>api_keep_alive_seconds - how long an idle connection is kept when the server does not say</li>
+ *     <li>api_connect_timeout_ms, api_socket_timeout_ms - connect and read timeouts</li>
+ * </ul>
+ *
+ * @see APIUtil
+ * @see ApiStubServer
+ * @see PoolingClientConnectionManager
+ * @see HttpClientConfig#reuseHttpClientInstance()
+ */
+// RestAssured 5.3 only accepts an AbstractHttpClient, so the pool is built on the deprecated HttpClient 4 classic API
+@SuppressWarnings("deprecation")
+public class ApiClient {
+
+    private static final AtomicLong opened = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+
+    private static final CountingConnectionManager connectionManager = new CountingConnectionManager();
+    private static final DefaultHttpClient httpClient = createHttpClient();
+    private static final RequestSpecification baseSpec = new RequestSpecBuilder()
+            .setConfig(RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                    .httpClientFactory(() -> httpClient)
+                    .reuseHttpClientInstance()))
+            .addFilter(ApiClient::readBody)
+            .addFilter(ApiStubServer::record)
+            .build();
+
+    /**
+     * Connection pool that applies per-host limits on first use of a host and counts opened and reused connections.
+     */
+    private static class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        private final Set<HttpRoute> configuredRoutes = ConcurrentHashMap.newKeySet();
+
+        CountingConnectionManager() {
+            setMaxTotal(ConfigReader.getInt("api_pool_max_total", 50));
+            setDefaultMaxPerRoute(ConfigReader.getInt("api_pool_max_per_host", 10));
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            if (configuredRoutes.add(route)) {
+                String host = route.getTargetHost().getHostName();
+                setMaxPerRoute(route, ConfigReader.getInt("api_pool_max_per_host." + host, getDefaultMaxPerRoute()));
+            }
+            ClientConnectionRequest request = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    (connection.isOpen() ? reused : opened).incrementAndGet();
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+    }
+
+    private static DefaultHttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getInt("api_keep_alive_seconds", 30));
+        client.setKeepAliveStrategy((response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMillis;
+        });
+        client.getParams().setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, ConfigReader.getInt("api_connect_timeout_ms", 10000));
+        client.getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT, ConfigReader.getInt("api_socket_timeout_ms", 30000));
+        client.getParams().setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, true);
+        return client;
+    }
+
+    /**
+     * Reads the whole response body as soon as the response arrives, which gives the connection back to the pool.
+     * A response whose body is never read would otherwise keep its connection leased.
+     */
+    private static Response readBody(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                     FilterContext context) {
+        Response received = context.next(request, response);
+        received.asByteArray();
+        return received;
+    }
+
+    /**
+     * Creates a request specification for one request, starting from the shared base specification.
+     * The base specification is copied, so headers or bodies added to the result never leak into other requests.
+     *
+     * @return A new request specification using the pooled HTTP client.
+     */
+    public static RequestSpecification request() {
+        return RestAssured.given().spec(baseSpec);
+    }
+
+    /**
+     * Retrieves the number of connections opened by the pool.
+     *
+     * @return The connections opened since the start of the run.
+     */
+    public static long getConnectionsOpened() {
+        return opened.get();
+    }
+
+    /**
+     * Retrieves the number of requests that reused an open pooled connection.
+     *
+     * @return The connections reused since the start of the run.
+     */
+    public static long getConnectionsReused() {
+        return reused.get();
+    }
+
+    /**
+     * Prints the connection counters, if any request was sent.
+     */
+    public static void logStats() {
+        long total = opened.get() + reused.get();
+        if (total > 0) {
+            System.out.println("API connections: " + opened.get() + " opened, " + reused.get() + " reused ("
+                    + Math.round(reused.get() * 100.0 / total) + "% reuse)");
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package utilities;
+
+import com.google.gson.GsonBuilder;
+import io.cucumber.java.Scenario;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * ApiResponseCache keeps successful GET responses of APIUtil, so reference data such as the book catalogue is fetched
+ * once per run instead of once per scenario. A cached response is reused while it is younger than the TTL; after that
+ * it is revalidated with If-None-Match and If-Modified-Since when the server sent an ETag or Last-Modified, and reused
+ * again when the server answers 304 Not Modified. The cache holds at most a fixed number of responses and evicts the
+ * least recently used one first.
+ * <p>
+ * Hits, misses and revalidations are counted per scenario, shown in the report of the scenario, and the run totals
+ * are written to {@value #REPORT_FILE} in the reports folder at the end of the run.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>api_cache_enabled - true to cache GET responses</li>
+ *     <li>api_cache_max_entries - maximum number of cached responses</li>
+ *     <li>api_cache_ttl_seconds - how long a response is reused without revalidation</li>
+ * </ul>
+ * Scenarios tagged {@value #BYPASS_TAG}, or that call bypassForScenario, always go to the server.
+ *
+ * @see APIUtil#getResponse(String)
+ * @see CommandTimer
+ */
+public class ApiResponseCache extends BaseClass {
+
+    /**
+     * Name of the machine-readable file written at the end of the run.
+     */
+    public static final String REPORT_FILE = "api-cache.json";
+
+    /**
+     * Tag of scenarios that must not use cached responses.
+     */
+    public static final String BYPASS_TAG = "@no_api_cache";
+
+    private static final String[] COUNTERS = {"hits", "misses", "revalidations", "bypassed"};
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > ConfigReader.getInt("api_cache_max_entries", 100);
+        }
+    };
+
+    /**
+     * Counters of the scenario running on the current thread; other threads sending its requests update them too.
+     */
+    private static final ThreadLocal<Map<String, Long>> scenarioCounts = ThreadLocal.withInitial(ConcurrentHashMap::new);
+
+    /**
+     * Bypass flag of the scenario running on the current thread.
+     */
+    private static final ThreadLocal<Boolean> bypass = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Counters of the whole run.
+     */
+    private static final Map<String, AtomicLong> runCounts = new LinkedHashMap<>();
+
+    static {
+        for (String counter : COUNTERS) {
+            runCounts.put(counter, new AtomicLong());
+        }
+    }
+
+    /**
+     * The scenario state of the thread that asked for a request: whether it bypasses the cache, the counters of its
+     * scenario and its name. It is read on the scenario thread, so requests sent for the scenario from other threads,
+     * e.g. by APIUtil.getResponses, still honour its bypass, count towards its report and are attributed to it in
+     * flight recordings.
+     */
+    static final class Caller {
+        final boolean bypass;
+        final Map<String, Long> counts;
+        final String scenario;
+
+        private Caller(boolean bypass, Map<String, Long> counts, String scenario) {
+            this.bypass = bypass;
+            this.counts = counts;
+            this.scenario = scenario;
+        }
+    }
+
+    /**
+     * Caller state of traffic that must always reach the server and is not counted, e.g. load tests.
+     */
+    static final Caller UNCACHED = new Caller(true, null, null);
+
+    /**
+     * A cached response with its validators.
+     */
+    private static class Entry {
+        final Response response;
+        final String etag;
+        final String lastModified;
+        volatile long storedAt;
+
+        Entry(Response response) {
+            this.response = response;
+            this.etag = response.getHeader("ETag");
+            this.lastModified = response.getHeader("Last-Modified");
+            this.storedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Captures the scenario state of the current thread.
+     *
+     * @return The bypass flag, scenario counters and scenario name of the current thread.
+     */
+    static Caller caller() {
+        Scenario scenario = TestContext.getScenario();
+        boolean bypassed = bypass.get() || (scenario != null && scenario.getSourceTagNames().contains(BYPASS_TAG));
+        return scenario == null ? new Caller(bypassed, null, null)
+                : new Caller(bypassed, scenarioCounts.get(), scenario.getName());
+    }
+
+    /**
+     * Returns the cached response of a URL or fetches it, for the scenario running on the current thread.
+     *
+     * @param url The URL of the GET request; it is the cache key.
+     * @param send Sends the request with the given conditional headers and returns the response.
+     * @return The cached, revalidated or fetched response.
+     */
+    public static Response get(String url, Function<Map<String, String>, Response> send) {
+        return get(url, caller(), send);
+    }
+
+    /**
+     * Returns the cached response of a URL or fetches it, for the scenario of a captured caller.
+     *
+     * @param url The URL of the GET request; it is the cache key.
+     * @param caller The scenario state captured on the scenario thread.
+     * @param send Sends the request with the given conditional headers and returns the response.
+     * @return The cached, revalidated or fetched response.
+     */
+    static Response get(String url, Caller caller, Function<Map<String, String>, Response> send) {
+        if (caller == UNCACHED || !ConfigReader.getBoolean("api_cache_enabled", false)) {
+            return send.apply(Map.of());
+        }
+        if (caller.bypass) {
+            count("bypassed", caller);
+            return send.apply(Map.of());
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(url);
+        }
+        long ttl = TimeUnit.SECONDS.toNanos(ConfigReader.getInt("api_cache_ttl_seconds", 300));
+        if (entry != null && System.nanoTime() - entry.storedAt < ttl) {
+            count("hits", caller);
+            return entry.response;
+        }
+        Map<String, String> validators = new HashMap<>();
+        if (entry != null && entry.etag != null) {
+            validators.put("If-None-Match", entry.etag);
+        }
+        if (entry != null && entry.lastModified != null) {
+            validators.put("If-Modified-Since", entry.lastModified);
+        }
+        Response response = send.apply(validators);
+        if (entry != null && response.getStatusCode() == 304) {
+            entry.storedAt = System.nanoTime();
+            count("revalidations", caller);
+            return entry.response;
+        }
+        count("misses", caller);
+        String cacheControl = response.getHeader("Cache-Control");
+        synchronized (entries) {
+            if (response.getStatusCode() == 200 && (cacheControl == null || !cacheControl.contains("no-store"))) {
+                entries.put(url, new Entry(response));
+            } else {
+                entries.remove(url);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Makes every following request of the scenario running on the current thread go to the server.
+     */
+    public static void bypassForScenario() {
+        bypass.set(true);
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Counts a cache outcome for the run and, if the caller runs a scenario, for the scenario.
+     */
+    private static void count(String counter, Caller caller) {
+        runCounts.get(counter).incrementAndGet();
+        if (caller.counts != null) {
+            caller.counts.merge(counter, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Logs the cache counters of the scenario to the report and clears them and the bypass flag
+     * for the next scenario on this thread.
+     *
+     * @param scenario The scenario that just finished.
+     */
+    public static void reportScenario(Scenario scenario) {
+        Map<String, Long> counts = scenarioCounts.get();
+        scenarioCounts.remove();
+        bypass.remove();
+        if (counts.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("<table><tr><th>API cache</th>");
+        for (String counter : COUNTERS) {
+            table.append("<th>").append(counter).append("</th>");
+        }
+        table.append("</tr><tr><td>GET responses</td>");
+        for (String counter : COUNTERS) {
+            table.append("<td>").append(counts.getOrDefault(counter, 0L)).append("</td>");
+        }
+        extentReportLog(scenario, table.append("</tr></table>").toString());
+    }
+
+    /**
+     * Prints the run totals and writes them to {@value #REPORT_FILE}, if any request used the cache.
+     */
+    public static void writeReport() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        runCounts.forEach((counter, count) -> totals.put(counter, count.get()));
+        if (totals.values().stream().mapToLong(Long::longValue).sum() == 0) {
+            return;
+        }
+        synchronized (entries) {
+            totals.put("entries", (long) entries.size());
+        }
+        System.out.println("API cache: " + totals.get("hits") + " hits, " + totals.get("misses") + " misses, "
+                + totals.get("revalidations") + " revalidations, " + totals.get("bypassed") + " bypassed");
+        Path file = Paths.get(Constants.reportsPath, REPORT_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(totals), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to write " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ApiStubServer is a local HTTP server, built on the JDK HttpServer, that answers API requests with canned responses
+ * so API scenarios can run without the network. Routes are read from routes.json in the stubs folder; each route
+ * matches a method, a path and optionally a query string, and answers with a status code, a body file from the
+ * stubs folder and an optional fixed delay. Requests without a route get a 404.
+ * While the server runs, APIUtil sends requests for any host to it.
+ * <p>
+ * Exchanges with the real service can be recorded and replayed. With api_stub_mode=record every APIUtil exchange is
+ * captured and written to recordings.json in the stubs folder at the end of the run. With api_stub_mode=replay the
+ * server starts before the first scenario and answers from routes and recordings, which are held in one in-memory
+ * index keyed by method, path, query and a hash of the request body. A route without a query matches any query.
+ * Every response is delayed by api_stub_latency_ms, and recordings also by the latency measured when they were
+ * recorded when api_stub_recorded_latency is true. Successful responses carry an ETag of their body and are answered
+ * with 304 Not Modified when the request sends the same ETag in If-None-Match.
+ *
+ * @see APIUtil#redirectTo(String)
+ * @see ApiClient
+ * @see Constants#stubsPath
+ * @see HttpServer
+ */
+public class ApiStubServer {
+
+    public static final String ROUTES_FILE = "routes.json";
+    public static final String RECORDINGS_FILE = "recordings.json";
+
+    private static final Type ROUTES_TYPE = new TypeToken<List<Route>>() { }.getType();
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static Map<String, Route> index;
+    private static volatile Map<String, Route> recordings;
+    private static boolean startedByMode;
+
+    /**
+     * A canned response. Routes name a body file; recordings carry the body and the recorded latency.
+     */
+    static class Route {
+        String method = "GET";
+        String path;
+        String query;
+        String bodyHash;
+        int status = 200;
+        String contentType = "application/json";
+        String body;
+        String content;
+        long delayMs;
+        long recordedMs;
+    }
+
+    /**
+     * Starts recording or replaying as set by api_stub_mode (off, record or replay).
+     * Called once before the scenarios run.
+     *
+     * @throws IOException If the routes or recordings cannot be read or the server cannot be started.
+     */
+    public static synchronized void startMode() throws IOException {
+        String mode = ConfigReader.getProperty("api_stub_mode", "off").trim().toLowerCase();
+        if ("record".equals(mode) && recordings == null) {
+            recordings = new ConcurrentHashMap<>();
+            for (Route recording : readRoutes(RECORDINGS_FILE)) {
+                recordings.put(keyOf(recording.method, recording.path, recording.query, recording.bodyHash), recording);
+            }
+            startedByMode = true;
+            System.out.println("Recording API exchanges to " + Paths.get(Constants.stubsPath, RECORDINGS_FILE));
+        } else if ("replay".equals(mode) && server == null) {
+            start();
+            startedByMode = true;
+        }
+    }
+
+    /**
+     * Stops what startMode started: writes the recorded exchanges, or stops the replay server.
+     * A server started with start() by a runner keeps running.
+     */
+    public static synchronized void stopMode() {
+        if (!startedByMode) {
+            return;
+        }
+        startedByMode = false;
+        if (recordings != null) {
+            Map<String, Route> recorded = recordings;
+            recordings = null;
+            Path file = Paths.get(Constants.stubsPath, RECORDINGS_FILE);
+            try {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create()
+                        .toJson(new ArrayList<>(new TreeMap<>(recorded).values())), StandardCharsets.UTF_8);
+                System.out.println("Recorded " + recorded.size() + " API exchanges to " + file);
+            } catch (IOException e) {
+                System.out.println("Unable to write API recordings to " + file + ": " + e.getMessage());
+            }
+        }
+        stop();
+    }
+
+    /**
+     * Starts the server on a free port of the loopback interface and redirects APIUtil requests to it.
+     *
+     * @return The base URL of the server, e.g. http://127.0.0.1:51234.
+     * @throws IOException If the routes cannot be read or the server cannot be started.
+     */
+    public static synchronized String start() throws IOException {
+        if (server != null) {
+            return baseUrl();
+        }
+        List<Route> routes = readRoutes(ROUTES_FILE);
+        List<Route> recorded = readRoutes(RECORDINGS_FILE);
+        index = new HashMap<>();
+        for (Route route : recorded) {
+            index.putIfAbsent(keyOf(route.method, route.path, route.query, route.bodyHash), route);
+        }
+        for (Route route : routes) {
+            index.putIfAbsent(keyOf(route.method, route.path, route.query, route.bodyHash), route);
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", ApiStubServer::handle);
+        server.start();
+        APIUtil.redirectTo(baseUrl());
+        System.out.println("API stub server listening on " + baseUrl() + " with " + routes.size() + " routes and "
+                + recorded.size() + " recordings");
+        return baseUrl();
+    }
+
+    /**
+     * Stops the server and sends APIUtil requests to their own hosts again.
+     */
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        APIUtil.redirectTo(null);
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        index = null;
+    }
+
+    /**
+     * Retrieves the base URL of the running server.
+     *
+     * @return The base URL, or null if the server is not running.
+     */
+    public static synchronized String baseUrl() {
+        return server == null ? null : "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * ApiClient filter that captures every exchange while recording, except 304 answers to revalidations of cached
+     * responses. It does nothing otherwise.
+     */
+    static Response record(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        Map<String, Route> recorded = recordings;
+        if (recorded == null) {
+            return context.next(request, response);
+        }
+        long start = System.nanoTime();
+        Response received = context.next(request, response);
+        if (received.getStatusCode() == 304) {
+            return received;
+        }
+        Route recording = new Route();
+        URI uri = URI.create(request.getURI());
+        Object body = request.getBody();
+        recording.method = request.getMethod();
+        recording.path = uri.getRawPath();
+        recording.query = uri.getRawQuery() == null ? "" : uri.getRawQuery();
+        recording.bodyHash = body == null ? null : hashOf(body.toString().getBytes(StandardCharsets.UTF_8));
+        recording.status = received.getStatusCode();
+        recording.contentType = received.getContentType();
+        recording.content = received.asString();
+        recording.recordedMs = (System.nanoTime() - start) / 1_000_000;
+        recorded.put(keyOf(recording.method, recording.path, recording.query, recording.bodyHash), recording);
+        return received;
+    }
+
+    private static List<Route> readRoutes(String fileName) throws IOException {
+        Path file = Paths.get(Constants.stubsPath, fileName);
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        List<Route> routes = new Gson().fromJson(Files.readString(file, StandardCharsets.UTF_8), ROUTES_TYPE);
+        return routes == null ? new ArrayList<>() : routes;
+    }
+
+    private static String keyOf(String method, String path, String query, String bodyHash) {
+        return method.toUpperCase() + " " + path + "?" + (query == null ? "*" : query) + " #" + (bodyHash == null ? "" : bodyHash);
+    }
+
+    private static String hashOf(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getRawPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            String bodyHash;
+            try (InputStream in = exchange.getRequestBody()) {
+                bodyHash = hashOf(in.readAllBytes());
+            }
+            Route route = find(method, path, query == null ? "" : query, bodyHash);
+            byte[] body;
+            if (route == null) {
+                System.out.println("No stub route for " + method + " " + exchange.getRequestURI());
+                body = ("{\"message\":\"No stub route for " + path + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(404, body.length);
+            } else {
+                if (route.content != null) {
+                    body = route.content.getBytes(StandardCharsets.UTF_8);
+                } else {
+                    body = route.body == null ? new byte[0] : Files.readAllBytes(Paths.get(Constants.stubsPath, route.body));
+                }
+                long delayMs = route.delayMs + ConfigReader.getInt("api_stub_latency_ms", 0)
+                        + (ConfigReader.getBoolean("api_stub_recorded_latency", false) ? route.recordedMs : 0);
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+                if (route.contentType != null && !route.contentType.isEmpty()) {
+                    exchange.getResponseHeaders().set("Content-Type", route.contentType);
+                }
+                String etag = route.status == 200 && body.length > 0 ? "\"" + hashOf(body) + "\"" : null;
+                if (etag != null) {
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                }
+                exchange.sendResponseHeaders(route.status, body.length == 0 ? -1 : body.length);
+            }
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Looks up a request with its body, then without it, then in the routes that match any query.
+     */
+    private static Route find(String method, String path, String query, String bodyHash) {
+        Map<String, Route> routes = index;
+        if (routes == null) {
+            return null;
+        }
+        Route route = routes.get(keyOf(method, path, query, bodyHash));
+        if (route == null && bodyHash != null) {
+            route = routes.get(keyOf(method, path, query, null));
+        }
+        if (route == null) {
+            route = routes.get(keyOf(method, path, null, null));
+        }
+        return route;
+    }
+}
@@ -10,6 +10,7 @@ import org.testng.ITestListener;
  * Implements ITestListener and ISuiteListener from TestNG.
  *
  * @see Scenario
+ * @see ScenarioLog
  * @see ITestListener
  * @see ISuiteListener
  * @see Assert
@@ -17,41 +18,38 @@ import org.testng.ITestListener;
  * @author ashish-khandelwal01
  */
 public class BaseClass implements ITestListener, ISuiteListener {
-    public static Scenario scenario;
 
     /**
-     * Logs an informational message to the scenario and console.
+     * Logs an informational message to the current thread's scenario log.
+     * It reaches the report, console and log file when the ScenarioLog is flushed at the end of the step.
      *
      * @param message The message to log.
      */
     public static void infoLog(String message){
-        extentReportLog(scenario, "\t" + message);
-        System.out.println(message);
+        ScenarioLog.append(ScenarioLog.Level.INFO, message);
     }
 
     /**
-     * Logs a failure message to the scenario and console, and fails the test.
+     * Logs a failure message to the current thread's scenario log and fails the test.
      *
      * @param message The failure message to log.
      */
     public static void failLog(String message){
-        extentReportLog(scenario, "\tFailed: "+ message);
-        System.out.println(message);
+        ScenarioLog.append(ScenarioLog.Level.FAIL, message);
         Assert.fail(message);
     }
 
     /**
-     * Logs a success message to the scenario and console.
+     * Logs a success message to the current thread's scenario log.
      *
      * @param message The success message to log.
      */
     public static void passLog(String message){
-        extentReportLog(scenario, "\t"+ message);
-        System.out.println(message);
+        ScenarioLog.append(ScenarioLog.Level.PASS, message);
     }
 
     /**
-     * Logs a message to the scenario with formatting for HTML reports.
+     * Logs a message to the scenario right away with formatting for HTML reports, e.g. for HTML tables.
      *
      * @param scenario The scenario to log the message to.
      * @param message The message to log.
@@ -0,0 +1,295 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BrowserPool keeps a set of pre-warmed browser sessions and leases them out to scenarios,
+ * so a scenario does not pay the full driver process launch and profile creation on every run.
+ * Sessions are reset between leases (cookies, storage, extra tabs, about:blank) and recycled
+ * after a configurable number of leases or when a health check fails.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>browser_pool_enabled - true to pool sessions, false to launch and quit a browser per scenario</li>
+ *     <li>browser_pool_size - number of sessions started ahead of time</li>
+ *     <li>browser_pool_max_leases - number of leases after which a session is replaced</li>
+ *     <li>browser_pool_lease_timeout_seconds - how long a scenario waits for a free session</li>
+ * </ul>
+ *
+ * @see SeleniumTestBase#createDriver()
+ * @see TestContext
+ */
+public class BrowserPool extends BaseClass {
+
+    /**
+     * Idle sessions ready to be leased.
+     */
+    private static final BlockingQueue<PooledBrowser> idle = new LinkedBlockingQueue<>();
+
+    /**
+     * Sessions currently leased to a scenario, keyed by their driver.
+     */
+    private static final Map<WebDriver, PooledBrowser> leased = new ConcurrentHashMap<>();
+
+    private static final AtomicLong leaseCount = new AtomicLong();
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong totalWaitMillis = new AtomicLong();
+    private static final AtomicLong maxWaitMillis = new AtomicLong();
+    private static final AtomicLong recycleCount = new AtomicLong();
+
+    private static volatile ExecutorService launcher;
+    private static SeleniumTestBase driverFactory;
+
+    /**
+     * A pooled browser session together with the number of times it has been leased.
+     */
+    private static class PooledBrowser {
+        final WebDriver driver;
+        final String homeWindow;
+        int leases;
+
+        PooledBrowser(WebDriver driver) {
+            this.driver = driver;
+            this.homeWindow = driver.getWindowHandle();
+        }
+    }
+
+    /**
+     * Checks whether session pooling is enabled.
+     *
+     * @return True if browser sessions are pooled, false otherwise.
+     */
+    public static boolean isPoolingEnabled() {
+        return ConfigReader.getBoolean("browser_pool_enabled", true);
+    }
+
+    /**
+     * Starts the pool by launching the configured number of sessions in the background.
+     * Subsequent calls have no effect.
+     */
+    public static synchronized void start() {
+        if (launcher != null) {
+            return;
+        }
+        int size = ConfigReader.getInt("browser_pool_size", 1);
+        driverFactory = new SeleniumTestBase();
+        launcher = Executors.newFixedThreadPool(Math.max(1, size), runnable -> {
+            Thread thread = new Thread(runnable, "browser-pool-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < size; i++) {
+            launchSession();
+        }
+    }
+
+    /**
+     * Leases a browser session and binds it to the current thread.
+     * When pooling is disabled a fresh session is launched instead.
+     *
+     * @return The leased WebDriver instance.
+     */
+    public static WebDriver lease() {
+        if (!isPoolingEnabled()) {
+            return new SeleniumTestBase().browserSetup();
+        }
+        start();
+        long start = System.currentTimeMillis();
+        long timeout = ConfigReader.getInt("browser_pool_lease_timeout_seconds", 120) * 1000L;
+        PooledBrowser browser = idle.poll();
+        boolean hit = browser != null;
+        while (browser == null || !isHealthy(browser)) {
+            if (browser != null) {
+                recycle(browser);
+                hit = false;
+            }
+            long remaining = timeout - (System.currentTimeMillis() - start);
+            try {
+                browser = remaining > 0 ? idle.poll(remaining, TimeUnit.MILLISECONDS) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                browser = null;
+            }
+            if (browser == null) {
+                failLog("No browser session became available within " + timeout + " ms");
+            }
+        }
+        long waited = System.currentTimeMillis() - start;
+        browser.leases++;
+        leased.put(browser.driver, browser);
+        leaseCount.incrementAndGet();
+        if (hit) {
+            hitCount.incrementAndGet();
+        }
+        totalWaitMillis.addAndGet(waited);
+        maxWaitMillis.accumulateAndGet(waited, Math::max);
+        TestContext.setDriver(browser.driver);
+        infoLog("Browser leased from pool in " + waited + " ms (" + (hit ? "warm hit" : "miss") + ")");
+        return browser.driver;
+    }
+
+    /**
+     * Returns a leased session to the pool. The session is reset for the next scenario,
+     * or replaced if it reached the lease limit or could not be reset.
+     * The commands of the reset are not counted in the scenario's CommandTimer figures.
+     *
+     * @param driver The WebDriver instance obtained from {@link #lease()}.
+     */
+    public static void release(WebDriver driver) {
+        TestContext.removeDriver();
+        if (driver == null) {
+            return;
+        }
+        PooledBrowser browser = leased.remove(driver);
+        if (browser == null) {
+            CommandTimer.untimed(driver::quit);
+            return;
+        }
+        if (browser.leases >= ConfigReader.getInt("browser_pool_max_leases", 20) || !CommandTimer.untimed(() -> reset(browser))) {
+            recycle(browser);
+        } else {
+            idle.offer(browser);
+        }
+    }
+
+    /**
+     * Quits every session in the pool and prints the pool statistics.
+     */
+    public static synchronized void shutdown() {
+        if (launcher == null) {
+            return;
+        }
+        ExecutorService executor = launcher;
+        launcher = null;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PooledBrowser> browsers = new ArrayList<>(leased.values());
+        idle.drainTo(browsers);
+        for (PooledBrowser browser : browsers) {
+            quitQuietly(browser.driver);
+        }
+        leased.clear();
+        System.out.println(getStats());
+    }
+
+    /**
+     * Builds a summary of pool wait time and hit rate.
+     *
+     * @return The pool statistics as a String.
+     */
+    public static String getStats() {
+        long leases = leaseCount.get();
+        long hits = hitCount.get();
+        return String.format("Browser pool: leases=%d, hits=%d, hitRate=%.1f%%, avgWait=%d ms, maxWait=%d ms, recycled=%d",
+                leases, hits, leases == 0 ? 0.0 : hits * 100.0 / leases,
+                leases == 0 ? 0 : totalWaitMillis.get() / leases, maxWaitMillis.get(), recycleCount.get());
+    }
+
+    /**
+     * Launches a new session in the background and adds it to the idle queue once it is ready.
+     */
+    private static void launchSession() {
+        ExecutorService executor = launcher;
+        if (executor == null) {
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                idle.offer(new PooledBrowser(driverFactory.createDriver()));
+            } catch (Throwable e) {
+                System.out.println("Unable to launch pooled browser: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Quits a session and launches a replacement in the background.
+     *
+     * @param browser The session to replace.
+     */
+    private static void recycle(PooledBrowser browser) {
+        recycleCount.incrementAndGet();
+        ExecutorService executor = launcher;
+        if (executor == null) {
+            quitQuietly(browser.driver);
+            return;
+        }
+        executor.submit(() -> quitQuietly(browser.driver));
+        launchSession();
+    }
+
+    /**
+     * Checks that a session still responds to WebDriver commands.
+     *
+     * @param browser The session to check.
+     * @return True if the session is usable, false otherwise.
+     */
+    private static boolean isHealthy(PooledBrowser browser) {
+        try {
+            browser.driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resets a session to a clean state: closes extra tabs, clears storage and cookies, and navigates to about:blank.
+     *
+     * @param browser The session to reset.
+     * @return True if the reset succeeded, false if the session should be recycled.
+     */
+    private static boolean reset(PooledBrowser browser) {
+        WebDriver driver = browser.driver;
+        try {
+            for (String handle : driver.getWindowHandles()) {
+                if (!handle.equals(browser.homeWindow)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(browser.homeWindow);
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); } catch (e) {}"
+                            + "try { window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp) {
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Unable to reset pooled browser: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quits a session, ignoring any error raised by an already dead browser.
+     *
+     * @param driver The WebDriver instance to quit.
+     */
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.out.println("Unable to quit pooled browser: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * CommandTimer is a WebDriver listener that times every command sent through a decorated driver
+ * (findElement, click, sendKeys, executeScript, getScreenshotAs, get, ...).
+ * Timings are kept in per-scenario histograms on the scenario thread; each scenario gets a summary table
+ * in the report and the run totals are written to {@value #REPORT_FILE} in the reports folder at the end of the run.
+ * Commands sent through {@link #untimed(Supplier)} are not recorded, so the figures are those of the scenario's own
+ * WebDriver round trips: BrowserPool's reset of a released session and DomWait's asynchronous observer script, which
+ * waits in the browser for up to a whole wait slice, use it.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>command_timing - true to decorate new sessions with the timer</li>
+ * </ul>
+ *
+ * @see EventFiringDecorator
+ * @see WebDriverListener
+ * @see LatencyHistogram
+ */
+public class CommandTimer extends BaseClass implements WebDriverListener {
+
+    /**
+     * Name of the machine-readable file written at the end of the run.
+     */
+    public static final String REPORT_FILE = "command-timings.json";
+
+    private static final CommandTimer listener = new CommandTimer();
+
+    /**
+     * Command timings of the scenario running on the current thread, in microseconds, keyed by command.
+     */
+    private static final ThreadLocal<Map<String, LatencyHistogram>> scenarioTimings = ThreadLocal.withInitial(TreeMap::new);
+
+    /**
+     * Start times of the commands in progress on the current thread; commands may nest (e.g. a click on an element
+     * returned by findElement), so a stack is used.
+     */
+    private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * True while the current thread sends commands that must not be recorded.
+     */
+    private static final ThreadLocal<Boolean> untimed = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Command timings of all finished scenarios.
+     */
+    private static final Map<String, LatencyHistogram> runTimings = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps a driver so all its commands are timed, if command timing is enabled.
+     *
+     * @param driver The WebDriver instance to decorate.
+     * @return The decorated WebDriver, or the given driver if command timing is disabled.
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        if (driver == null || !ConfigReader.getBoolean("command_timing", true)) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(listener).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        stop(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        stop(method);
+    }
+
+    /**
+     * Runs commands that are not part of the scenario's WebDriver work, e.g. housekeeping or waits, without
+     * recording them.
+     *
+     * @param call The commands to run.
+     * @return The result of the call.
+     */
+    public static <T> T untimed(Supplier<T> call) {
+        boolean outer = untimed.get();
+        untimed.set(true);
+        try {
+            return call.get();
+        } finally {
+            untimed.set(outer);
+        }
+    }
+
+    /**
+     * Runs commands that are not part of the scenario's WebDriver work without recording them.
+     *
+     * @param action The commands to run.
+     */
+    public static void untimed(Runnable action) {
+        untimed(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Logs the command timings of the scenario as a table, adds them to the run totals
+     * and clears them for the next scenario on this thread.
+     *
+     * @param scenario The scenario that just finished.
+     */
+    public static void reportScenario(Scenario scenario) {
+        Map<String, LatencyHistogram> timings = scenarioTimings.get();
+        scenarioTimings.remove();
+        startTimes.remove();
+        if (timings.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder("<table><tr><th>WebDriver command</th><th>Calls</th><th>Total ms</th>"
+                + "<th>Mean ms</th><th>p90 ms</th><th>Max ms</th></tr>");
+        for (Map.Entry<String, LatencyHistogram> entry : timings.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            table.append(String.format("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>",
+                    entry.getKey(), histogram.getCount(), histogram.getTotal() / 1000.0, histogram.getMean() / 1000.0,
+                    histogram.getPercentile(90) / 1000.0, histogram.getMax() / 1000.0));
+            runTimings.computeIfAbsent(entry.getKey(), key -> new LatencyHistogram()).merge(histogram);
+        }
+        extentReportLog(scenario, table.append("</table>").toString());
+    }
+
+    /**
+     * Writes the run totals of every command to {@value #REPORT_FILE}, slowest total first.
+     */
+    public static void writeReport() {
+        if (runTimings.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> commands = new ArrayList<>();
+        runTimings.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().getTotal(), a.getValue().getTotal()))
+                .forEach(entry -> {
+                    LatencyHistogram histogram = entry.getValue();
+                    Map<String, Object> command = new LinkedHashMap<>();
+                    command.put("command", entry.getKey());
+                    command.put("count", histogram.getCount());
+                    command.put("totalMs", histogram.getTotal() / 1000.0);
+                    command.put("meanMs", histogram.getMean() / 1000.0);
+                    command.put("p50Ms", histogram.getPercentile(50) / 1000.0);
+                    command.put("p90Ms", histogram.getPercentile(90) / 1000.0);
+                    command.put("p99Ms", histogram.getPercentile(99) / 1000.0);
+                    command.put("maxMs", histogram.getMax() / 1000.0);
+                    commands.add(command);
+                });
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Path file = Paths.get(Constants.reportsPath, REPORT_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, gson.toJson(Map.of("commands", commands)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to write " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the duration of the command that just finished. Commands sent outside a scenario,
+     * e.g. by the browser pool while warming up sessions, and untimed commands are not recorded.
+     */
+    private static void stop(Method method) {
+        Long start = startTimes.get().poll();
+        if (start == null || method.getDeclaringClass() == Object.class || TestContext.getScenario() == null
+                || untimed.get()) {
+            return;
+        }
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        scenarioTimings.get().computeIfAbsent(command, key -> new LatencyHistogram())
+                .record((System.nanoTime() - start) / 1000);
+    }
+}
@@ -0,0 +1,106 @@
+package utilities;
+
+import java.io.FileInputStream;
+import java.util.Properties;
+
+/**
+ * ConfigReader loads the configuration properties file once per JVM and provides typed access to its values.
+ * A JVM system property with the same key overrides the value from the file, so settings can be changed
+ * per run from the Maven command line (e.g. -Dbrowser_pool_size=4).
+ *
+ * @see Properties
+ * @see Constants#configFilePath
+ */
+public class ConfigReader {
+
+    /**
+     * Properties loaded from the configuration properties file.
+     */
+    private static final Properties configProperties = new Properties();
+
+    // Static block to load the configuration properties file.
+    static {
+        try (FileInputStream configFile = new FileInputStream(Constants.configFilePath)) {
+            configProperties.load(configFile);
+        } catch (Exception e) {
+            System.out.println("Unable to load configuration.properties file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves a copy of all properties loaded from the configuration file.
+     *
+     * @return The configuration properties.
+     */
+    public static Properties getProperties() {
+        Properties copy = new Properties();
+        copy.putAll(configProperties);
+        return copy;
+    }
+
+    /**
+     * Retrieves a configuration value.
+     *
+     * @param key The property key.
+     * @return The trimmed value, or null if the key is not configured.
+     */
+    public static String getProperty(String key) {
+        String value = System.getProperty(key, configProperties.getProperty(key));
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * Retrieves a configuration value, falling back to a default if it is missing or blank.
+     *
+     * @param key The property key.
+     * @param defaultValue The value to return if the key is not configured.
+     * @return The configured value or the default value.
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * Retrieves a configuration value as an int.
+     *
+     * @param key The property key.
+     * @param defaultValue The value to return if the key is missing or not a number.
+     * @return The configured value or the default value.
+     */
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retrieves a configuration value as a double.
+     *
+     * @param key The property key.
+     * @param defaultValue The value to return if the key is missing or not a number.
+     * @return The configured value or the default value.
+     */
+    public static double getDouble(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Retrieves a configuration value as a boolean.
+     *
+     * @param key The property key.
+     * @param defaultValue The value to return if the key is not configured.
+     * @return The configured value or the default value.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
+    }
+}
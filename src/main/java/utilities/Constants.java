@@ -5,4 +5,12 @@ public class Constants {
     public static final String configFilePath = "src/test/resources/configs/configuration.properties";
     public static final String downloadPath = "src/test/resources/downloads/";
     public static final String screenshotPath = "src/test/resources/screenshots/";
+    public static final String waitHistoryFile = "src/test/resources/history/wait-budget.json";
+    public static final String durationHistoryFile = "src/test/resources/history/durations.json";
+    public static final String failureRecordFile = "src/test/resources/history/failures.json";
+    public static final String perfBaselineFile = "src/test/resources/perf/perf-baseline.json";
+    public static final String stubsPath = "src/test/resources/stubs/";
+    public static final String reportsPath = "Reports/";
+    public static final String runHistoryFile = "Reports/history/runs.bin";
+    public static final String loginStatePath = "src/test/resources/loginState/";
 }
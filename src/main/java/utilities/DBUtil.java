@@ -72,6 +72,7 @@ public class DBUtil extends BaseClass {
      * @return A list of rows, where each row is a list of strings.
      */
     public List<List<String>> executeQuery(String query) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("DBUtil", "executeQuery");
         List<List<String>> tableData = new ArrayList<>();
         try {
             Statement statement = connection.createStatement();
@@ -89,6 +90,7 @@ public class DBUtil extends BaseClass {
             failLog("Unable to execute query: " + query);
         } finally {
             closeConnection();
+            call.commit();
         }
         return tableData;
     }
@@ -101,6 +103,7 @@ public class DBUtil extends BaseClass {
      * @return The string value from the specified column, or null if no result is found.
      */
     public String executeQueryAndReturnString(String query, String columnName) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("DBUtil", "executeQueryAndReturnString");
         String result = null;
         try {
             Statement statement = connection.createStatement();
@@ -114,6 +117,7 @@ public class DBUtil extends BaseClass {
             failLog("Unable to execute query: " + query);
         } finally {
             closeConnection();
+            call.commit();
         }
         return result;
     }
@@ -127,6 +131,7 @@ public class DBUtil extends BaseClass {
      * @return A list of CLOB values from the specified column.
      */
     public List<Clob> executeQueryAndReturnClob(String query, String columnName) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("DBUtil", "executeQueryAndReturnClob");
         List<Clob> clobList = new ArrayList<>();
         try {
             Statement statement = connection.createStatement();
@@ -140,6 +145,7 @@ public class DBUtil extends BaseClass {
             failLog("Unable to execute query: " + query);
         } finally {
             closeConnection();
+            call.commit();
         }
         return clobList;
     }
@@ -0,0 +1,271 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.time.Duration;
+
+/**
+ * DomWait is an event-driven wait engine for element conditions.
+ * Instead of sleeping a fixed interval between checks, it installs a MutationObserver inside the page
+ * that resolves as soon as the condition holds in the DOM, then confirms the condition once through WebDriver.
+ * While the element is not yet attached, the observer wakes up on the next DOM change and the element is located again.
+ * If the browser cannot run asynchronous scripts, or wait_strategy=poll is configured,
+ * it falls back to adaptive polling that starts at 50 ms and backs off to 500 ms.
+ *
+ * @see ExpectedCondition
+ * @see JavascriptExecutor#executeAsyncScript(String, Object...)
+ */
+public class DomWait {
+
+    /** Condition name understood by the observer script: element is displayed. */
+    public static final String VISIBLE = "visible";
+
+    /** Condition name understood by the observer script: element is displayed and enabled. */
+    public static final String CLICKABLE = "clickable";
+
+    /** Condition name understood by the observer script: element is selected or checked. */
+    public static final String SELECTED = "selected";
+
+    /** Condition name understood by the observer script: element is hidden or detached. */
+    public static final String INVISIBLE = "invisible";
+
+    /**
+     * Longest time a single observer script may block, kept below the default W3C script timeout of 30 seconds.
+     */
+    private static final long MAX_OBSERVER_SLICE_MILLIS = 20_000;
+
+    private static final long MIN_POLL_MILLIS = 50;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    /**
+     * In-page JavaScript function shown(e) that approximates WebElement.isDisplayed() without a WebDriver round-trip.
+     */
+    static final String SHOWN_FUNCTION =
+            "function shown(e) {"
+            + "  if (!e || !e.isConnected) { return false; }"
+            + "  for (var n = e; n && n.nodeType === 1; n = n.parentElement) {"
+            + "    var s = window.getComputedStyle(n);"
+            + "    if (s.display === 'none' || (n === e && s.visibility === 'hidden') || s.opacity === '0') { return false; }"
+            + "  }"
+            + "  var r = e.getBoundingClientRect();"
+            + "  return r.width > 0 && r.height > 0;"
+            + "}";
+
+    /**
+     * Script that resolves with "met" when the condition holds, "changed" when the DOM changes while the
+     * element is absent, or "timeout" when the slice expires.
+     */
+    private static final String OBSERVER_SCRIPT =
+            "var el = arguments[0], cond = arguments[1], timeout = arguments[2], done = arguments[arguments.length - 1];"
+            + SHOWN_FUNCTION
+            + "function check() {"
+            + "  switch (cond) {"
+            + "    case 'visible': return shown(el);"
+            + "    case 'clickable': return shown(el) && !el.disabled;"
+            + "    case 'selected': return !!el && !!(el.selected || el.checked);"
+            + "    case 'invisible': return !shown(el);"
+            + "    default: return false;"
+            + "  }"
+            + "}"
+            + "if (el && check()) { done('met'); return; }"
+            + "var finished = false, timer;"
+            + "function finish(result) {"
+            + "  if (finished) { return; }"
+            + "  finished = true; clearTimeout(timer); observer.disconnect();"
+            + "  document.removeEventListener('transitionend', onEvent, true);"
+            + "  document.removeEventListener('animationend', onEvent, true);"
+            + "  done(result);"
+            + "}"
+            + "function onEvent() { if (!el) { finish('changed'); } else if (check()) { finish('met'); } }"
+            + "var observer = new MutationObserver(onEvent);"
+            + "observer.observe(document.documentElement, {attributes: true, childList: true, subtree: true, characterData: true});"
+            + "document.addEventListener('transitionend', onEvent, true);"
+            + "document.addEventListener('animationend', onEvent, true);"
+            + "timer = setTimeout(function () { finish(el && check() ? 'met' : 'timeout'); }, timeout);";
+
+    /**
+     * Waits until an element is visible.
+     *
+     * @param element The WebElement to wait for.
+     * @param timeout The maximum time to wait.
+     * @return The visible WebElement.
+     */
+    public static WebElement visibilityOf(WebElement element, Duration timeout) {
+        return until(element, VISIBLE, ExpectedConditions.visibilityOf(element), timeout, null);
+    }
+
+    /**
+     * Waits until an element is visible and enabled.
+     *
+     * @param element The WebElement to wait for.
+     * @param timeout The maximum time to wait.
+     * @param exceptionToIgnore An additional exception to ignore while checking the condition, or null.
+     * @return The clickable WebElement.
+     */
+    public static WebElement elementToBeClickable(WebElement element, Duration timeout, Class<? extends Throwable> exceptionToIgnore) {
+        return until(element, CLICKABLE, ExpectedConditions.elementToBeClickable(element), timeout, exceptionToIgnore);
+    }
+
+    /**
+     * Waits until an element is selected.
+     *
+     * @param element The WebElement to wait for.
+     * @param timeout The maximum time to wait.
+     * @return True once the WebElement is selected.
+     */
+    public static Boolean elementToBeSelected(WebElement element, Duration timeout) {
+        return until(element, SELECTED, ExpectedConditions.elementToBeSelected(element), timeout, null);
+    }
+
+    /**
+     * Waits until an element is invisible or no longer attached to the page.
+     *
+     * @param element The WebElement to wait for.
+     * @param timeout The maximum time to wait.
+     * @return True once the WebElement is invisible.
+     */
+    public static Boolean invisibilityOf(WebElement element, Duration timeout) {
+        return until(element, INVISIBLE, ExpectedConditions.invisibilityOf(element), timeout, null);
+    }
+
+    /**
+     * Waits until a condition holds, waking up on DOM changes instead of a fixed polling interval.
+     *
+     * @param element The WebElement the condition applies to.
+     * @param domCondition The condition name evaluated inside the page (one of the constants of this class).
+     * @param condition The WebDriver condition that confirms the result and produces the return value.
+     * @param timeout The maximum time to wait.
+     * @param exceptionToIgnore An additional exception to ignore while checking the condition, or null.
+     * @param <T> The type returned by the condition.
+     * @return The value produced by the condition once it holds.
+     * @throws TimeoutException If the condition does not hold within the timeout.
+     */
+    public static <T> T until(WebElement element, String domCondition, ExpectedCondition<T> condition,
+                              Duration timeout, Class<? extends Throwable> exceptionToIgnore) {
+        WebDriver driver = TestContext.getDriver();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        T value = evaluate(condition, driver, exceptionToIgnore);
+        if (isTruthy(value)) {
+            return value;
+        }
+        if (canObserve(driver)) {
+            JavascriptExecutor executor = (JavascriptExecutor) driver;
+            long remaining;
+            int failures = 0;
+            while ((remaining = remainingMillis(deadline)) > 0 && failures < 3) {
+                long slice = Math.min(remaining, MAX_OBSERVER_SLICE_MILLIS);
+                String result = observe(executor, element, domCondition, slice);
+                if ("absent".equals(result)) {
+                    // The element is not attached yet: wake up on the next DOM change and locate it again.
+                    result = observe(executor, null, domCondition, slice);
+                }
+                if ("unsupported".equals(result)) {
+                    break;
+                }
+                if ("error".equals(result)) {
+                    // The page navigated or the script was interrupted; observe the new document.
+                    failures++;
+                    continue;
+                }
+                value = evaluate(condition, driver, exceptionToIgnore);
+                if (isTruthy(value)) {
+                    return value;
+                }
+                if ("met".equals(result)) {
+                    // The page and WebDriver disagree on the condition; let polling settle it.
+                    break;
+                }
+            }
+        }
+        return poll(condition, driver, deadline, timeout, exceptionToIgnore);
+    }
+
+    /**
+     * Checks whether event-driven waiting can be used with the given driver.
+     *
+     * @param driver The WebDriver instance.
+     * @return True if the driver can run the observer script, false otherwise.
+     */
+    private static boolean canObserve(WebDriver driver) {
+        return driver instanceof JavascriptExecutor
+                && !"poll".equalsIgnoreCase(ConfigReader.getProperty("wait_strategy", "event"));
+    }
+
+    /**
+     * Runs the observer script for at most the given number of milliseconds. The script waits in the browser,
+     * so it is not counted as a WebDriver command by the CommandTimer.
+     *
+     * @return The script result ("met", "changed" or "timeout"), "absent" if the element could not be located,
+     * "unsupported" if the driver cannot run asynchronous scripts, or "error" if the script was interrupted.
+     */
+    private static String observe(JavascriptExecutor executor, WebElement element, String domCondition, long sliceMillis) {
+        try {
+            return CommandTimer.untimed(() -> String.valueOf(executor.executeAsyncScript(OBSERVER_SCRIPT, element, domCondition, sliceMillis)));
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return "absent";
+        } catch (UnsupportedCommandException e) {
+            return "unsupported";
+        } catch (WebDriverException e) {
+            return "error";
+        }
+    }
+
+    /**
+     * Polls the condition with an interval that starts small and backs off, until it holds or the deadline passes.
+     */
+    private static <T> T poll(ExpectedCondition<T> condition, WebDriver driver, long deadline, Duration timeout,
+                              Class<? extends Throwable> exceptionToIgnore) {
+        long interval = MIN_POLL_MILLIS;
+        while (true) {
+            T value = evaluate(condition, driver, exceptionToIgnore);
+            if (isTruthy(value)) {
+                return value;
+            }
+            long remaining = remainingMillis(deadline);
+            if (remaining <= 0) {
+                throw new TimeoutException("Expected condition failed: waiting for " + condition
+                        + " (tried for " + timeout.toMillis() + " ms)");
+            }
+            try {
+                Thread.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+            interval = Math.min(interval * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Evaluates a condition once, treating missing or stale elements (and the optional ignored exception) as not ready.
+     */
+    private static <T> T evaluate(ExpectedCondition<T> condition, WebDriver driver, Class<? extends Throwable> exceptionToIgnore) {
+        try {
+            return condition.apply(driver);
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return null;
+        } catch (RuntimeException e) {
+            if (exceptionToIgnore != null && exceptionToIgnore.isInstance(e)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        return value != null && !Boolean.FALSE.equals(value);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return (deadline - System.nanoTime()) / 1_000_000;
+    }
+}
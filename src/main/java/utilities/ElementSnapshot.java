@@ -0,0 +1,66 @@
+package utilities;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * ElementSnapshot holds the text, visibility and requested attributes of a single element,
+ * as collected in bulk by {@link SelUtil#snapshot(java.util.List, String...)}.
+ *
+ * @see SelUtil
+ */
+public class ElementSnapshot {
+
+    private final String text;
+    private final boolean visible;
+    private final Map<String, String> attributes;
+
+    /**
+     * Creates a snapshot of an element.
+     *
+     * @param text The visible text of the element.
+     * @param visible True if the element is displayed, false otherwise.
+     * @param attributes The requested attribute values, keyed by attribute name.
+     */
+    public ElementSnapshot(String text, boolean visible, Map<String, String> attributes) {
+        this.text = text;
+        this.visible = visible;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @return The visible text of the element.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return True if the element was displayed when the snapshot was taken, false otherwise.
+     */
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Retrieves a requested attribute value.
+     *
+     * @param name The attribute name.
+     * @return The attribute value, or null if the element does not have it or it was not requested.
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * @return All requested attribute values, keyed by attribute name.
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementSnapshot{text='" + text + "', visible=" + visible + ", attributes=" + attributes + "}";
+    }
+}
@@ -64,6 +64,7 @@ public class ExcelUtil extends BaseClass {
      * @return The data from the specified cell as a String.
      */
     public static String getCellData(String xlFile, String sheetName, int rowNum, int colNum) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("ExcelUtil", "getCellData");
         String cellData = "";
         try {
             fileInputStream = new FileInputStream(xlFile);
@@ -79,6 +80,7 @@ public class ExcelUtil extends BaseClass {
         } catch (Exception e) {
             System.out.println("Error reading cell data: " + e.getMessage());
         }
+        call.commit();
         return cellData;
     }
 
@@ -91,6 +93,7 @@ public class ExcelUtil extends BaseClass {
      * @return A HashMap containing the test case data as key-value pairs.
      */
     public static HashMap<String, String> getData(String xlPath, String sheetName, String testCaseName) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("ExcelUtil", "getData");
         HashMap<String, String> data = new HashMap<>();
         try {
             fileInputStream = new FileInputStream(xlPath);
@@ -125,6 +128,7 @@ public class ExcelUtil extends BaseClass {
             } catch (Exception e) {
                 System.out.println("Error closing Excel file: " + e.getMessage());
             }
+            call.commit();
         }
         return data;
     }
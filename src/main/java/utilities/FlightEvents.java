@@ -0,0 +1,151 @@
+package utilities;
+
+import io.cucumber.java.Scenario;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * FlightEvents defines the custom Java Flight Recorder events of the framework: one per scenario, one per step and
+ * one per call of the API, database, MongoDB, MQ, SFTP and Excel utilities. The events cover the thread that ran
+ * them, so samples of CPU, allocation and blocking recorded by JFR on that thread can be attributed to them.
+ * Events cost next to nothing while no recording is running.
+ *
+ * @see Event
+ * @see TestContext
+ */
+public class FlightEvents {
+
+    /**
+     * A scenario, from its first before hook to its last after hook.
+     */
+    @Name("bdd.Scenario")
+    @Label("Scenario")
+    @Category({"BDD", "Cucumber"})
+    @StackTrace(false)
+    public static class ScenarioEvent extends Event {
+        @Label("Scenario")
+        public String scenario;
+
+        @Label("Location")
+        @Description("Feature path and line")
+        public String location;
+
+        @Label("Status")
+        public String status;
+    }
+
+    /**
+     * A step or hook of a scenario.
+     */
+    @Name("bdd.Step")
+    @Label("Step")
+    @Category({"BDD", "Cucumber"})
+    @StackTrace(false)
+    public static class StepEvent extends Event {
+        @Label("Scenario")
+        public String scenario;
+
+        @Label("Step")
+        public String step;
+
+        @Label("Status")
+        public String status;
+    }
+
+    /**
+     * A call of a utility class, e.g. APIUtil GET.
+     */
+    @Name("bdd.UtilityCall")
+    @Label("Utility Call")
+    @Category({"BDD", "Utilities"})
+    public static class UtilityCallEvent extends Event {
+        @Label("Utility")
+        public String utility;
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Scenario")
+        public String scenario;
+    }
+
+    /**
+     * A utility call timed by {@link #timed(String, String, Call)}.
+     *
+     * @param <T> The result of the call.
+     * @param <E> The exception the call may throw.
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Starts timing a utility call of the scenario running on the current thread. Commit the returned event when the
+     * call returns, e.g. in an existing finally block; an event that is never committed is not recorded.
+     *
+     * @param utility The utility class, e.g. APIUtil.
+     * @param operation The operation, e.g. GET or executeQuery.
+     * @return The started event.
+     */
+    public static UtilityCallEvent utilityCall(String utility, String operation) {
+        Scenario scenario = TestContext.getScenario();
+        return utilityCall(utility, operation, scenario == null ? null : scenario.getName());
+    }
+
+    /**
+     * Starts timing a utility call made for a scenario on another thread, e.g. a request of APIUtil.getResponses.
+     *
+     * @param utility The utility class, e.g. APIUtil.
+     * @param operation The operation, e.g. GET or executeQuery.
+     * @param scenario The name of the scenario the call is made for, or null if there is none.
+     * @return The started event.
+     */
+    public static UtilityCallEvent utilityCall(String utility, String operation, String scenario) {
+        UtilityCallEvent event = new UtilityCallEvent();
+        if (event.isEnabled()) {
+            event.utility = utility;
+            event.operation = operation;
+            event.scenario = scenario;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Times a utility call of the scenario running on the current thread, whether it returns or throws.
+     *
+     * @param utility The utility class, e.g. MongoDBUtil.
+     * @param operation The operation, e.g. getMongoClient.
+     * @param call The call to time.
+     * @return The result of the call.
+     * @throws E If the call throws.
+     */
+    public static <T, E extends Exception> T timed(String utility, String operation, Call<T, E> call) throws E {
+        Scenario scenario = TestContext.getScenario();
+        return timed(utility, operation, scenario == null ? null : scenario.getName(), call);
+    }
+
+    /**
+     * Times a utility call made for a scenario on another thread, whether it returns or throws.
+     *
+     * @param utility The utility class, e.g. APIUtil.
+     * @param operation The operation, e.g. GET.
+     * @param scenario The name of the scenario the call is made for, or null if there is none.
+     * @param call The call to time.
+     * @return The result of the call.
+     * @throws E If the call throws.
+     */
+    public static <T, E extends Exception> T timed(String utility, String operation, String scenario, Call<T, E> call) throws E {
+        UtilityCallEvent event = utilityCall(utility, operation, scenario);
+        try {
+            return call.call();
+        } finally {
+            event.commit();
+        }
+    }
+}
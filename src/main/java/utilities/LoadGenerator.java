@@ -0,0 +1,260 @@
+package utilities;
+
+import com.google.gson.GsonBuilder;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator puts sustained load on an API through APIUtil, cycling through a list of GET URLs.
+ * <p>
+ * With a target rate it uses an open model: request i is due at start + i / rate and is sent on its own thread at
+ * that time whether or not earlier requests have returned, and its latency is measured from the time it was
+ * due, not from the time it was sent. A slow server therefore shows up as higher latency instead of fewer requests
+ * (no coordinated omission). Requests that would exceed maxInFlight are not sent and are counted as dropped errors.
+ * Without a rate it uses a closed model: a fixed number of workers send requests back to back.
+ * <p>
+ * Latencies are recorded per endpoint (method and path) in LatencyHistograms, after the warm-up period.
+ * Requests never use the ApiResponseCache, so the figures are those of the server.
+ * Requests run on platform threads: RestAssured's Groovy runtime pins virtual threads while it loads classes, which
+ * can stall every request of a large burst on a machine with few cores.
+ *
+ * @see APIUtil
+ * @see LatencyHistogram
+ */
+public class LoadGenerator {
+
+    /**
+     * Counters and latencies of one endpoint.
+     */
+    public static class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+    }
+
+    /**
+     * Outcome of a load run.
+     */
+    public static class Result {
+        final String model;
+        final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+        double targetRate;
+        int concurrency;
+        long measuredMillis;
+
+        Result(String model) {
+            this.model = model;
+        }
+
+        /**
+         * Retrieves the total number of measured requests, including errors and dropped requests.
+         *
+         * @return The number of requests.
+         */
+        public long getRequests() {
+            return endpoints.values().stream().mapToLong(stats -> stats.requests.get()).sum();
+        }
+
+        /**
+         * Retrieves the total number of failed or dropped requests.
+         *
+         * @return The number of errors.
+         */
+        public long getErrors() {
+            return endpoints.values().stream().mapToLong(stats -> stats.errors.get()).sum();
+        }
+
+        private EndpointStats stats(String endpoint) {
+            return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        }
+    }
+
+    /**
+     * Sends requests at a fixed arrival rate (open model) for a fixed duration.
+     *
+     * @param urls The URLs to request, in turn.
+     * @param rate The target number of requests per second.
+     * @param maxInFlight The maximum number of requests waiting for a response.
+     * @param warmup The time at the start whose requests are not measured.
+     * @param duration The measured time after the warm-up.
+     * @return The measured latencies and errors per endpoint.
+     */
+    public static Result runAtRate(List<String> urls, double rate, int maxInFlight, Duration warmup, Duration duration) {
+        Result result = new Result("open");
+        result.targetRate = rate;
+        long interval = Math.max(1, Math.round(1_000_000_000L / rate));
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        try (ExecutorService executor = Executors.newCachedThreadPool()) {
+            for (long i = 0; ; i++) {
+                long due = start + i * interval;
+                if (due >= end) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String url = urls.get((int) (i % urls.size()));
+                boolean measured = due >= measureFrom;
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        EndpointStats stats = result.stats(endpointOf(url));
+                        stats.requests.incrementAndGet();
+                        stats.errors.incrementAndGet();
+                        stats.dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        send(url, due, measured ? result : null);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        result.measuredMillis = duration.toMillis();
+        return result;
+    }
+
+    /**
+     * Sends requests from a fixed number of workers, each waiting for its response before the next request
+     * (closed model), for a fixed duration.
+     *
+     * @param urls The URLs to request, in turn.
+     * @param concurrency The number of workers.
+     * @param warmup The time at the start whose requests are not measured.
+     * @param duration The measured time after the warm-up.
+     * @return The measured latencies and errors per endpoint.
+     */
+    public static Result runWithConcurrency(List<String> urls, int concurrency, Duration warmup, Duration duration) {
+        Result result = new Result("closed");
+        result.concurrency = concurrency;
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicLong next = new AtomicLong();
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                executor.submit(() -> {
+                    long sent;
+                    while ((sent = System.nanoTime()) < end) {
+                        String url = urls.get((int) (next.getAndIncrement() % urls.size()));
+                        send(url, sent, sent >= measureFrom ? result : null);
+                    }
+                });
+            }
+        }
+        result.measuredMillis = duration.toMillis();
+        return result;
+    }
+
+    /**
+     * Sends one request and records its latency from the given start time.
+     */
+    private static void send(String url, long startNanos, Result result) {
+        boolean failed;
+        try {
+            Response response = APIUtil.getResponse(url, ApiResponseCache.UNCACHED);
+            failed = response.getStatusCode() >= 400;
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (result == null) {
+            return;
+        }
+        EndpointStats stats = result.stats(endpointOf(url));
+        stats.latency.record((System.nanoTime() - startNanos) / 1000);
+        stats.requests.incrementAndGet();
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    private static String endpointOf(String url) {
+        return "GET " + URI.create(url).getPath();
+    }
+
+    /**
+     * Prints the result and writes it as JSON and as an HTML report section.
+     *
+     * @param result The result of a load run.
+     * @param folder The folder to write load-report.json and load-report.html to.
+     */
+    public static void writeReport(Result result, Path folder) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new TreeMap<>(result.endpoints).forEach((endpoint, stats) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("requests", stats.requests.get());
+            row.put("throughputPerSecond", stats.requests.get() * 1000.0 / Math.max(1, result.measuredMillis));
+            row.put("errorRatePercent", stats.requests.get() == 0 ? 0 : stats.errors.get() * 100.0 / stats.requests.get());
+            row.put("dropped", stats.dropped.get());
+            row.put("p50Ms", stats.latency.getPercentile(50) / 1000.0);
+            row.put("p90Ms", stats.latency.getPercentile(90) / 1000.0);
+            row.put("p99Ms", stats.latency.getPercentile(99) / 1000.0);
+            row.put("p999Ms", stats.latency.getPercentile(99.9) / 1000.0);
+            row.put("maxMs", stats.latency.getMax() / 1000.0);
+            rows.add(row);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("model", result.model);
+        report.put("targetRatePerSecond", result.targetRate);
+        report.put("concurrency", result.concurrency);
+        report.put("measuredSeconds", result.measuredMillis / 1000.0);
+        report.put("endpoints", rows);
+
+        StringBuilder text = new StringBuilder(String.format("%-40s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Req/s", "Err %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms"));
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Load test</title>"
+                + "<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border-bottom:1px solid #ddd;"
+                + "padding:4px 8px;text-align:right}td:first-child,th:first-child{text-align:left}</style></head><body>"
+                + "<h1>Load test</h1><p>" + ("open".equals(result.model)
+                        ? "Open model, target " + result.targetRate + " requests/s"
+                        : "Closed model, " + result.concurrency + " workers")
+                + ", " + result.measuredMillis / 1000.0 + " s measured</p><table><tr><th>Endpoint</th><th>Requests</th>"
+                + "<th>Req/s</th><th>Error %</th><th>Dropped</th><th>p50 ms</th><th>p90 ms</th><th>p99 ms</th>"
+                + "<th>p99.9 ms</th><th>Max ms</th></tr>");
+        for (Map<String, Object> row : rows) {
+            text.append(String.format("%-40s %9d %9.1f %7.2f %9.1f %9.1f %9.1f %9.1f %9.1f%n", row.get("endpoint"),
+                    row.get("requests"), row.get("throughputPerSecond"), row.get("errorRatePercent"), row.get("p50Ms"),
+                    row.get("p90Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs")));
+            html.append(String.format("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.2f</td><td>%d</td><td>%.1f</td>"
+                            + "<td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>", row.get("endpoint"),
+                    row.get("requests"), row.get("throughputPerSecond"), row.get("errorRatePercent"), row.get("dropped"),
+                    row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs")));
+        }
+        html.append("</table></body></html>");
+        System.out.print(text);
+        try {
+            Files.createDirectories(folder);
+            Files.writeString(folder.resolve("load-report.json"),
+                    new GsonBuilder().setPrettyPrinting().create().toJson(report), StandardCharsets.UTF_8);
+            Files.writeString(folder.resolve("load-report.html"), html, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to write load report to " + folder + ": " + e.getMessage());
+        }
+    }
+}
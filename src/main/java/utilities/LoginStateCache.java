@@ -0,0 +1,234 @@
+package utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LoginStateCache stores the authenticated browser state of a user after a real UI login
+ * (cookies plus localStorage and sessionStorage) and injects it into later sessions for the same user,
+ * so those scenarios skip the login page entirely.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>login_state_cache - true to reuse cached login state</li>
+ *     <li>login_state_ttl_minutes - how long a saved state stays valid</li>
+ *     <li>login_state_bootstrap_path - a lightweight same-origin path loaded before the state is injected</li>
+ * </ul>
+ * Scenarios tagged {@value #FORCE_UI_LOGIN_TAG} always perform a real UI login.
+ *
+ * @see Cookie
+ * @see Gson
+ * @see Constants#loginStatePath
+ */
+public class LoginStateCache extends BaseClass {
+
+    /**
+     * Tag that forces a real UI login, for scenarios that test the login flow itself.
+     */
+    public static final String FORCE_UI_LOGIN_TAG = "@ui_login";
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * States already read from or written to disk during this run, keyed by user.
+     */
+    private static final Map<String, LoginState> states = new ConcurrentHashMap<>();
+
+    private static final String DUMP_STORAGE_SCRIPT =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }"
+            + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    private static final String LOAD_STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+            + "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });"
+            + "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });";
+
+    /**
+     * Serialized login state of a user.
+     */
+    private static class LoginState {
+        String url;
+        long savedAt;
+        List<StoredCookie> cookies = new ArrayList<>();
+        Map<String, String> localStorage;
+        Map<String, String> sessionStorage;
+    }
+
+    /**
+     * Serialized form of a browser cookie.
+     */
+    private static class StoredCookie {
+        String name;
+        String value;
+        String domain;
+        String path;
+        Long expiry;
+        boolean secure;
+        boolean httpOnly;
+        String sameSite;
+    }
+
+    /**
+     * Checks whether the current scenario may reuse a cached login state.
+     *
+     * @return True if the cache is enabled and the scenario is not tagged {@value #FORCE_UI_LOGIN_TAG}.
+     */
+    public static boolean isCacheEnabled() {
+        if (!ConfigReader.getBoolean("login_state_cache", true)) {
+            return false;
+        }
+        Scenario scenario = TestContext.getScenario();
+        return scenario == null || !scenario.getSourceTagNames().contains(FORCE_UI_LOGIN_TAG);
+    }
+
+    /**
+     * Saves the login state of the current page for a user. Call this after the login has been verified.
+     *
+     * @param username The user the state belongs to.
+     * @param driver The WebDriver instance holding the logged-in session.
+     */
+    @SuppressWarnings("unchecked")
+    public static void save(String username, WebDriver driver) {
+        try {
+            LoginState state = new LoginState();
+            state.url = driver.getCurrentUrl();
+            state.savedAt = System.currentTimeMillis();
+            for (Cookie cookie : driver.manage().getCookies()) {
+                StoredCookie stored = new StoredCookie();
+                stored.name = cookie.getName();
+                stored.value = cookie.getValue();
+                stored.domain = cookie.getDomain();
+                stored.path = cookie.getPath();
+                stored.expiry = cookie.getExpiry() == null ? null : cookie.getExpiry().getTime();
+                stored.secure = cookie.isSecure();
+                stored.httpOnly = cookie.isHttpOnly();
+                stored.sameSite = cookie.getSameSite();
+                state.cookies.add(stored);
+            }
+            Map<String, Map<String, String>> storage = (Map<String, Map<String, String>>)
+                    ((JavascriptExecutor) driver).executeScript(DUMP_STORAGE_SCRIPT);
+            state.localStorage = storage.get("local");
+            state.sessionStorage = storage.get("session");
+            Path file = stateFile(username);
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "login", ".tmp");
+            Files.writeString(temp, gson.toJson(state), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            states.put(username, state);
+            infoLog("Saved login state for " + username);
+        } catch (Exception e) {
+            System.out.println("Unable to save login state for " + username + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Injects the cached login state of a user into the given session and opens the page it was saved on.
+     * The caller should verify the page shows a logged-in state and {@link #evict(String)} it otherwise.
+     *
+     * @param username The user whose state should be restored.
+     * @param driver The WebDriver instance to restore the state into.
+     * @return True if a valid state was found and injected, false if a UI login is required.
+     */
+    public static boolean restore(String username, WebDriver driver) {
+        LoginState state = load(username);
+        if (state == null) {
+            return false;
+        }
+        try {
+            URI uri = URI.create(state.url);
+            String origin = uri.getScheme() + "://" + uri.getAuthority();
+            driver.get(origin + ConfigReader.getProperty("login_state_bootstrap_path", "/robots.txt"));
+            long now = System.currentTimeMillis();
+            for (StoredCookie stored : state.cookies) {
+                if (stored.expiry != null && stored.expiry <= now) {
+                    continue;
+                }
+                driver.manage().addCookie(new Cookie.Builder(stored.name, stored.value)
+                        .domain(stored.domain)
+                        .path(stored.path)
+                        .expiresOn(stored.expiry == null ? null : new Date(stored.expiry))
+                        .isSecure(stored.secure)
+                        .isHttpOnly(stored.httpOnly)
+                        .sameSite(stored.sameSite)
+                        .build());
+            }
+            ((JavascriptExecutor) driver).executeScript(LOAD_STORAGE_SCRIPT,
+                    state.localStorage == null ? Map.of() : state.localStorage,
+                    state.sessionStorage == null ? Map.of() : state.sessionStorage);
+            driver.get(state.url);
+            infoLog("Restored cached login state for " + username);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Unable to restore login state for " + username + ": " + e.getMessage());
+            evict(username);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the cached login state of a user, e.g. when the server no longer accepts it.
+     *
+     * @param username The user whose state should be removed.
+     */
+    public static void evict(String username) {
+        states.remove(username);
+        try {
+            Files.deleteIfExists(stateFile(username));
+        } catch (IOException e) {
+            System.out.println("Unable to delete login state for " + username + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the state of a user from memory or disk, discarding it if it is older than the TTL.
+     *
+     * @param username The user whose state should be loaded.
+     * @return The login state, or null if there is no valid state.
+     */
+    private static LoginState load(String username) {
+        LoginState state = states.get(username);
+        if (state == null) {
+            Path file = stateFile(username);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            try {
+                state = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), LoginState.class);
+            } catch (Exception e) {
+                System.out.println("Unable to read login state for " + username + ": " + e.getMessage());
+                return null;
+            }
+        }
+        long ttl = ConfigReader.getInt("login_state_ttl_minutes", 30) * 60_000L;
+        if (state == null || state.url == null || System.currentTimeMillis() - state.savedAt > ttl) {
+            evict(username);
+            return null;
+        }
+        states.put(username, state);
+        return state;
+    }
+
+    /**
+     * Resolves the file a user's state is stored in.
+     */
+    private static Path stateFile(String username) {
+        return Paths.get(Constants.loginStatePath, username.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+}
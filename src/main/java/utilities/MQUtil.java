@@ -60,6 +60,7 @@ public class MQUtil extends BaseClass {
      * @param message The message to be written into the MQ queue.
      */
     public static void writeMsgIntoMQ(String message) {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("MQUtil", "writeMsgIntoMQ");
         // Set MQ environment properties using the configuration
         MQEnvironment.hostname = configProperties.getProperty("mqhost");
         MQEnvironment.properties.put(MQC.TRANSPORT_PROPERTY, MQC.TRANSPORT_MQSERIES_CLIENT);
@@ -104,5 +105,6 @@ public class MQUtil extends BaseClass {
             // Log failure if unable to write the message into MQ
             failLog("Unable to write message into MQ");
         }
+        call.commit();
     }
 }
\ No newline at end of file
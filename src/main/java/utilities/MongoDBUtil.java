@@ -3,7 +3,6 @@ package utilities;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientSettings;
-import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import org.bson.Document;
@@ -80,7 +79,7 @@ public class MongoDBUtil extends BaseClass {
                 .applyConnectionString(connectionString)
                 .build();
 
-        return (MongoClient) MongoClients.create(settings);
+        return FlightEvents.timed("MongoDBUtil", "getMongoClient", () -> (MongoClient) MongoClients.create(settings));
     }
 
     /**
@@ -115,7 +114,7 @@ public class MongoDBUtil extends BaseClass {
      * @return The document as a JSONObject, or null if not found.
      */
     public static JSONObject getDocumentFromCollection(MongoCollection<Document> collection, String key, String value) {
-        Document document = collection.find(eq(key, value)).first();
+        Document document = FlightEvents.timed("MongoDBUtil", "getDocumentFromCollection", () -> collection.find(eq(key, value)).first());
         if (document != null) {
             String document_string = document.toJson();
             return jsonUtil.stringToJson(document_string);
@@ -132,7 +131,7 @@ public class MongoDBUtil extends BaseClass {
      * @return A list of documents as JSONObjects.
      */
     public static List<JSONObject> getDocumentListFromCollection(MongoCollection<Document> collection, String key, int value) {
-        FindIterable<Document> document = collection.find(eq(key, value));
+        List<Document> document = FlightEvents.timed("MongoDBUtil", "getDocumentListFromCollection", () -> collection.find(eq(key, value)).into(new ArrayList<>()));
         List<JSONObject> jsonObjects = new ArrayList<>();
         for (Document doc : document) {
             jsonObjects.add(jsonUtil.stringToJson(doc.toJson()));
@@ -149,7 +148,7 @@ public class MongoDBUtil extends BaseClass {
      * @return A list of documents as JSONObjects.
      */
     public static List<JSONObject> getDocumentListFromCollection(MongoCollection<Document> collection, String key, String value) {
-        FindIterable<Document> document = collection.find(and(eq(key, value)));
+        List<Document> document = FlightEvents.timed("MongoDBUtil", "getDocumentListFromCollection", () -> collection.find(and(eq(key, value))).into(new ArrayList<>()));
         List<JSONObject> jsonObjects = new ArrayList<>();
         for (Document doc : document) {
             jsonObjects.add(jsonUtil.stringToJson(doc.toJson()));
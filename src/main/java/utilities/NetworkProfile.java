@@ -0,0 +1,157 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NetworkProfile applies a named network profile from configuration.properties to a Chrome or Edge session
+ * through DevTools: it can block URL patterns and resource types and emulate a slow network.
+ * Counters of blocked and transferred requests are kept per session and reported per scenario.
+ * <p>
+ * Configuration (configuration.properties or -D system properties), where &lt;name&gt; is the value of network_profile:
+ * <ul>
+ *     <li>network_profile - name of the active profile; empty to leave the network untouched</li>
+ *     <li>network_profile.&lt;name&gt;.block_urls - comma separated URL patterns, * is a wildcard</li>
+ *     <li>network_profile.&lt;name&gt;.block_types - comma separated DevTools resource types, e.g. Image,Media,Font</li>
+ *     <li>network_profile.&lt;name&gt;.latency_ms, download_kbps, upload_kbps - optional network emulation</li>
+ * </ul>
+ * Blocked requests are never fetched, so their size is unknown; the report shows how many were blocked
+ * next to the bytes that were actually transferred.
+ *
+ * @see HasDevTools
+ * @see DevTools
+ */
+public class NetworkProfile extends BaseClass {
+
+    /**
+     * Active profiles, keyed by the session they were applied to.
+     */
+    private static final Map<WebDriver, NetworkProfile> profiles = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final Event<Map<String, Object>> LOADING_FAILED = new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> LOADING_FINISHED = new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> REQUEST_PAUSED = new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+
+    private final String name;
+    private final AtomicLong blockedByUrl = new AtomicLong();
+    private final AtomicLong blockedByType = new AtomicLong();
+    private final AtomicLong finishedRequests = new AtomicLong();
+    private final AtomicLong transferredBytes = new AtomicLong();
+
+    private NetworkProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Applies the configured network profile to a new session. Does nothing if no profile is configured
+     * or the browser does not expose DevTools.
+     *
+     * @param driver The WebDriver instance to configure.
+     */
+    public static void apply(WebDriver driver) {
+        String name = ConfigReader.getProperty("network_profile", "");
+        if (name.isEmpty() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            NetworkProfile profile = new NetworkProfile(name);
+            profile.install(((HasDevTools) driver).getDevTools());
+            profiles.put(driver, profile);
+        } catch (Exception e) {
+            System.out.println("Unable to apply network profile '" + name + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logs the blocked and transferred request counters of a session to the current scenario and resets them.
+     *
+     * @param driver The WebDriver instance the profile was applied to.
+     */
+    public static void reportAndReset(WebDriver driver) {
+        NetworkProfile profile = driver == null ? null : profiles.get(driver);
+        if (profile == null) {
+            return;
+        }
+        long byUrl = profile.blockedByUrl.getAndSet(0);
+        long byType = profile.blockedByType.getAndSet(0);
+        infoLog(String.format("Network profile '%s': blocked %d requests (%d by URL, %d by resource type), transferred %.1f KB in %d requests",
+                profile.name, byUrl + byType, byUrl, byType,
+                profile.transferredBytes.getAndSet(0) / 1024.0, profile.finishedRequests.getAndSet(0)));
+    }
+
+    /**
+     * Enables the DevTools domains and listeners for this profile.
+     */
+    private void install(DevTools devTools) {
+        String prefix = "network_profile." + name + ".";
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        devTools.addListener(LOADING_FINISHED, event -> {
+            finishedRequests.incrementAndGet();
+            Object length = event.get("encodedDataLength");
+            if (length instanceof Number) {
+                transferredBytes.addAndGet(((Number) length).longValue());
+            }
+        });
+        devTools.addListener(LOADING_FAILED, event -> {
+            // Network.setBlockedURLs reports "inspector"; csp, mixed-content, coep etc. are not caused by the profile
+            if ("inspector".equals(event.get("blockedReason"))) {
+                blockedByUrl.incrementAndGet();
+            }
+        });
+
+        List<String> urls = split(ConfigReader.getProperty(prefix + "block_urls", ""));
+        if (!urls.isEmpty()) {
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", urls)));
+        }
+
+        List<String> types = split(ConfigReader.getProperty(prefix + "block_types", ""));
+        if (!types.isEmpty()) {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String type : types) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+            }
+            devTools.addListener(REQUEST_PAUSED, event -> {
+                blockedByType.incrementAndGet();
+                devTools.send(new Command<>("Fetch.failRequest",
+                        Map.of("requestId", event.get("requestId"), "errorReason", "BlockedByClient")));
+            });
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+
+        int latency = ConfigReader.getInt(prefix + "latency_ms", 0);
+        int download = ConfigReader.getInt(prefix + "download_kbps", 0);
+        int upload = ConfigReader.getInt(prefix + "upload_kbps", 0);
+        if (latency > 0 || download > 0 || upload > 0) {
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("offline", false);
+            conditions.put("latency", latency);
+            conditions.put("downloadThroughput", download > 0 ? download * 1024 / 8 : -1);
+            conditions.put("uploadThroughput", upload > 0 ? upload * 1024 / 8 : -1);
+            devTools.send(new Command<>("Network.emulateNetworkConditions", conditions));
+        }
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>();
+        for (String item : Arrays.asList(value.split(","))) {
+            if (!item.trim().isEmpty()) {
+                values.add(item.trim());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,20 @@
+package utilities;
+
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * PageReadiness is implemented by page objects that know when they are usable,
+ * so navigation can return as soon as that condition holds instead of waiting for every subresource.
+ *
+ * @see SelUtil#navigate(String, PageReadiness)
+ * @see ExpectedCondition
+ */
+public interface PageReadiness {
+
+    /**
+     * Retrieves the condition that holds once the page can be interacted with, e.g. a key element being clickable.
+     *
+     * @return The readiness condition of the page.
+     */
+    ExpectedCondition<?> readinessCondition();
+}
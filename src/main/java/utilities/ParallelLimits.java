@@ -0,0 +1,75 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * ParallelLimits caps how many scenarios carrying a given tag run at the same time when scenarios run in parallel,
+ * e.g. to keep browser scenarios at the size of the browser pool while API scenarios use every runner thread.
+ * A scenario takes a slot for each of its limited tags before it starts and gives them back when it ends.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>parallel_limit.&lt;tag&gt; - maximum concurrent scenarios with the tag, or "pool" for browser_pool_size</li>
+ * </ul>
+ *
+ * @see Semaphore
+ * @see BrowserPool
+ */
+public class ParallelLimits {
+
+    /**
+     * One semaphore per limited tag, created on first use.
+     */
+    private static final Map<String, Semaphore> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Slots held by the scenario running on the current thread.
+     */
+    private static final ThreadLocal<List<Semaphore>> held = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Takes a slot for every limited tag of a scenario, blocking until one is free.
+     * Tags are taken in sorted order so two scenarios never wait on each other.
+     *
+     * @param tags The tags of the scenario about to start.
+     */
+    public static void acquire(Collection<String> tags) {
+        for (String tag : new TreeSet<>(tags)) {
+            String limit = ConfigReader.getProperty("parallel_limit." + tag, "");
+            if (limit.isEmpty()) {
+                continue;
+            }
+            Semaphore semaphore = limits.computeIfAbsent(tag, key -> new Semaphore(permitsOf(limit), true));
+            semaphore.acquireUninterruptibly();
+            held.get().add(semaphore);
+        }
+    }
+
+    /**
+     * Gives back the slots held by the scenario running on the current thread.
+     */
+    public static void release() {
+        for (Semaphore semaphore : held.get()) {
+            semaphore.release();
+        }
+        held.remove();
+    }
+
+    private static int permitsOf(String limit) {
+        if (limit.equalsIgnoreCase("pool")) {
+            return Math.max(1, ConfigReader.getInt("browser_pool_size", 1));
+        }
+        try {
+            return Math.max(1, Integer.parseInt(limit));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid parallel limit " + limit + ", using 1");
+            return 1;
+        }
+    }
+}
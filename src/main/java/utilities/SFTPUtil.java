@@ -26,6 +26,7 @@ public class SFTPUtil extends BaseClass {
      */
 
     public void connect(String host, int port, String username, String password) throws Exception {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("SFTPUtil", "connect");
         JSch jsch = new JSch();
         session = jsch.getSession(username, host, port);
         session.setPassword(password);
@@ -37,6 +38,7 @@ public class SFTPUtil extends BaseClass {
         session.connect();
         channelSftp = (ChannelSftp) session.openChannel("sftp");
         channelSftp.connect();
+        call.commit();
     }
 
     /**
@@ -47,8 +49,11 @@ public class SFTPUtil extends BaseClass {
      * @throws Exception If an error occurs during file upload.
      */
     public void uploadFile(String localFilePath, String remoteFilePath) throws Exception {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("SFTPUtil", "uploadFile");
         try (FileInputStream fis = new FileInputStream(new File(localFilePath))) {
             channelSftp.put(fis, remoteFilePath);
+        } finally {
+            call.commit();
         }
     }
 
@@ -60,8 +65,11 @@ public class SFTPUtil extends BaseClass {
      * @throws Exception If an error occurs during file download.
      */
     public void downloadFile(String remoteFilePath, String localFilePath) throws Exception {
+        FlightEvents.UtilityCallEvent call = FlightEvents.utilityCall("SFTPUtil", "downloadFile");
         try (FileOutputStream fos = new FileOutputStream(new File(localFilePath))) {
             channelSftp.get(remoteFilePath, fos);
+        } finally {
+            call.commit();
         }
     }
 
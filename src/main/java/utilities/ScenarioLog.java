@@ -0,0 +1,126 @@
+package utilities;
+
+import io.cucumber.java.Scenario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ScenarioLog is a buffered, per-scenario log sink behind BaseClass.infoLog, passLog and failLog.
+ * Messages are appended to a buffer of the current thread together with their level and are only written out
+ * at step and scenario boundaries: once to the Cucumber scenario (HTML escaped at that point) and once to Logback,
+ * which writes the console and the rolling log file configured in logback-test.xml.
+ * Messages logged on a thread without a running scenario go to Logback straight away.
+ *
+ * @see BaseClass
+ * @see Logger
+ * @see Scenario#log(String)
+ */
+public class ScenarioLog {
+
+    private static final Logger logger = LoggerFactory.getLogger("scenario");
+
+    /**
+     * Severity of a buffered message.
+     */
+    public enum Level {
+        INFO, PASS, FAIL
+    }
+
+    /**
+     * A buffered message.
+     */
+    private static class Entry {
+        final Level level;
+        final String message;
+
+        Entry(Level level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Messages of the scenario running on the current thread that have not been written yet.
+     */
+    private static final ThreadLocal<List<Entry>> buffer = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Adds a message to the buffer of the current thread, or logs it right away if no scenario is running.
+     *
+     * @param level The severity of the message.
+     * @param message The message to log.
+     */
+    public static void append(Level level, String message) {
+        message = String.valueOf(message);
+        if (TestContext.getScenario() == null) {
+            write(level, message);
+            return;
+        }
+        buffer.get().add(new Entry(level, message));
+    }
+
+    /**
+     * Writes the buffered messages of the current thread to the scenario and to Logback, then clears the buffer.
+     *
+     * @param scenario The scenario to write the messages to.
+     */
+    public static void flush(Scenario scenario) {
+        List<Entry> entries = buffer.get();
+        if (entries.isEmpty()) {
+            return;
+        }
+        buffer.remove();
+        StringBuilder html = new StringBuilder();
+        MDC.put("scenario", scenario == null ? "" : scenario.getName());
+        try {
+            for (Entry entry : entries) {
+                write(entry.level, entry.message);
+                if (html.length() > 0) {
+                    html.append("<br>");
+                }
+                html.append("&emsp;").append(entry.level == Level.FAIL ? "Failed: " : "").append(toHtml(entry.message));
+            }
+        } finally {
+            MDC.remove("scenario");
+        }
+        if (scenario != null) {
+            try {
+                scenario.log(html.toString());
+            } catch (Exception e) {
+                logger.warn("Test step status is not updated in Extent report");
+            }
+        }
+    }
+
+    private static void write(Level level, String message) {
+        if (level == Level.FAIL) {
+            logger.error(message);
+        } else {
+            logger.info(message);
+        }
+    }
+
+    /**
+     * Escapes a message for the HTML report, keeping tabs and line breaks visible.
+     */
+    private static String toHtml(String message) {
+        StringBuilder html = new StringBuilder(message.length() + 16);
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            switch (c) {
+                case '<': html.append("&lt;"); break;
+                case '>': html.append("&gt;"); break;
+                case '&': html.append("&amp;"); break;
+                case '\t': html.append("&emsp;"); break;
+                case '\n': html.append("<br>"); break;
+                case '\r': break;
+                default: html.append(c);
+            }
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,260 @@
+package utilities;
+
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ScreenshotPipeline takes raw screenshot bytes from the driver and returns immediately.
+ * Encoding, optional downscaling or JPEG recompression, content-hash deduplication and disk writes
+ * run on a bounded worker pool; when the queue is full the capturing thread does the work itself.
+ * Processed screenshots are attached to the scenario when {@link #flush(Scenario)} is called at scenario end,
+ * so they still land in the Extent report.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>screenshot_workers - number of worker threads</li>
+ *     <li>screenshot_queue_size - number of screenshots that may wait for a worker</li>
+ *     <li>screenshot_scale - scale factor applied before encoding (1.0 keeps the original size)</li>
+ *     <li>screenshot_format - png, or jpg to recompress with screenshot_jpeg_quality</li>
+ * </ul>
+ *
+ * @see TakesScreenshot
+ * @see ImageIO
+ * @see Constants#screenshotPath
+ */
+public class ScreenshotPipeline {
+
+    /**
+     * Screenshots submitted by the current thread that have not been attached yet.
+     */
+    private static final ThreadLocal<List<Future<ProcessedScreenshot>>> pending = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Files already encoded and written during this run, keyed by the content hash of the original screenshot.
+     */
+    private static final Map<String, Path> writtenFiles = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private static volatile ThreadPoolExecutor workers;
+
+    /**
+     * A screenshot after encoding, ready to be attached.
+     */
+    private static class ProcessedScreenshot {
+        final String name;
+        final String hash;
+        final byte[] bytes;
+        final String mediaType;
+
+        ProcessedScreenshot(String name, String hash, byte[] bytes, String mediaType) {
+            this.name = name;
+            this.hash = hash;
+            this.bytes = bytes;
+            this.mediaType = mediaType;
+        }
+    }
+
+    /**
+     * Captures a screenshot of the given session and queues it for processing.
+     *
+     * @param driver The WebDriver instance to capture.
+     * @param name The attachment name, usually the scenario name.
+     */
+    public static void capture(WebDriver driver, String name) {
+        submit(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES), name);
+    }
+
+    /**
+     * Queues raw PNG bytes for processing; the screenshot is attached on the next {@link #flush(Scenario)}.
+     *
+     * @param png The PNG bytes returned by the driver.
+     * @param name The attachment name, usually the scenario name.
+     */
+    public static void submit(byte[] png, String name) {
+        pending.get().add(workers().submit(() -> process(png, name)));
+    }
+
+    /**
+     * Queues raw PNG bytes to be written to the given file, without attaching them to a scenario.
+     *
+     * @param png The PNG bytes returned by the driver.
+     * @param target The file to write.
+     * @return The pending write; it completes with the file once it exists, or fails with the IOException.
+     */
+    public static Future<Path> write(byte[] png, Path target) {
+        return workers().submit(() -> {
+            Files.createDirectories(target.getParent());
+            return Files.write(target, png);
+        });
+    }
+
+    /**
+     * Waits for the screenshots submitted by the current thread and attaches them to the scenario,
+     * skipping screenshots whose content was already attached to it.
+     *
+     * @param scenario The scenario to attach the screenshots to.
+     */
+    public static void flush(Scenario scenario) {
+        List<Future<ProcessedScreenshot>> futures = pending.get();
+        pending.remove();
+        Set<String> attached = new HashSet<>();
+        for (Future<ProcessedScreenshot> future : futures) {
+            try {
+                ProcessedScreenshot screenshot = future.get(30, TimeUnit.SECONDS);
+                if (attached.add(screenshot.hash)) {
+                    scenario.attach(screenshot.bytes, screenshot.mediaType, screenshot.name);
+                }
+            } catch (Exception e) {
+                System.out.println("Unable to attach screenshot: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Waits for queued work to finish and stops the worker threads.
+     */
+    public static synchronized void shutdown() {
+        if (workers == null) {
+            return;
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers = null;
+    }
+
+    /**
+     * Hashes, re-encodes and writes a screenshot. Identical screenshots are encoded and written to disk only once
+     * per run; later copies attach the bytes of the file already written.
+     */
+    private static ProcessedScreenshot process(byte[] png, String name) throws IOException {
+        String hash = sha256(png);
+        String format = ConfigReader.getProperty("screenshot_format", "png").toLowerCase();
+        String extension = format.equals("jpg") || format.equals("jpeg") ? "jpg" : "png";
+        String mediaType = extension.equals("jpg") ? "image/jpeg" : "image/png";
+        Path written = writtenFiles.get(hash);
+        if (written != null) {
+            return new ProcessedScreenshot(name, hash, Files.readAllBytes(written), mediaType);
+        }
+        byte[] encoded = encode(png, format);
+        Path file = Paths.get(Constants.screenshotPath, sanitize(name) + "_" + hash.substring(0, 12) + "." + extension);
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, encoded);
+            writtenFiles.putIfAbsent(hash, file);
+        } catch (IOException e) {
+            System.out.println("Unable to write screenshot " + file + ": " + e.getMessage());
+        }
+        return new ProcessedScreenshot(name, hash, encoded, mediaType);
+    }
+
+    /**
+     * Applies the configured scale and format; returns the original bytes when no conversion is configured.
+     */
+    private static byte[] encode(byte[] png, String format) throws IOException {
+        double scale = ConfigReader.getDouble("screenshot_scale", 1.0);
+        boolean jpeg = format.equals("jpg") || format.equals("jpeg");
+        if (scale >= 1.0 && !jpeg) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * Math.min(scale, 1.0)));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * Math.min(scale, 1.0)));
+        BufferedImage target = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (jpeg) {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality((float) ConfigReader.getDouble("screenshot_jpeg_quality", 0.8));
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(target, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        } else {
+            ImageIO.write(target, "png", out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Lazily creates the bounded worker pool.
+     */
+    private static ThreadPoolExecutor workers() {
+        ThreadPoolExecutor executor = workers;
+        if (executor == null) {
+            synchronized (ScreenshotPipeline.class) {
+                if (workers == null) {
+                    int threads = Math.max(1, ConfigReader.getInt("screenshot_workers", 2));
+                    workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, ConfigReader.getInt("screenshot_queue_size", 32))),
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "screenshot-worker-" + threadCounter.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            },
+                            new ThreadPoolExecutor.CallerRunsPolicy());
+                    workers.allowCoreThreadTimeOut(true);
+                }
+                executor = workers;
+            }
+        }
+        return executor;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name == null ? "screenshot" : name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
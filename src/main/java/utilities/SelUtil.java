@@ -1,23 +1,30 @@
 package utilities;
 
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * SelUtil is a utility class for common Selenium WebDriver operations.
  * It provides methods for waiting for elements, interacting with elements, and handling visibility and clickability.
+ * All waits are routed through the event-driven DomWait engine.
  * Extends SeleniumTestBase to utilize WebDriver setup and configuration.
  *
  * @see WebDriver
  * @see WebElement
- * @see WebDriverWait
- * @see FluentWait
+ * @see DomWait
+ * @see WaitBudget
+ * @see PageReadiness
  * @see Properties
  */
 
@@ -31,7 +38,7 @@ public class SelUtil extends SeleniumTestBase {
      * @return The visible WebElement.
      */
     public static WebElement waitForElementToBeVisible(WebElement element, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout)).until(ExpectedConditions.visibilityOf(element));
+        return DomWait.visibilityOf(element, Duration.ofSeconds(timeout));
     }
 
     /**
@@ -42,7 +49,7 @@ public class SelUtil extends SeleniumTestBase {
      * @return The clickable WebElement.
      */
     public static WebElement waitForElementToBeClickable(WebElement element, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout)).until(ExpectedConditions.elementToBeClickable(element));
+        return DomWait.elementToBeClickable(element, Duration.ofSeconds(timeout), null);
     }
 
     /**
@@ -53,40 +60,47 @@ public class SelUtil extends SeleniumTestBase {
      * @return True if the WebElement is selected, false otherwise.
      */
     public static boolean waitForElementToBeSelected(WebElement element, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout)).until(ExpectedConditions.elementToBeSelected(element));
+        return DomWait.elementToBeSelected(element, Duration.ofSeconds(timeout));
     }
 
     /**
-     * Sends text to a WebElement after waiting for it to be visible.
+     * Sends text to a WebElement after waiting for it to be visible, with a timeout budgeted from its history.
      *
      * @param element The WebElement to send text to.
      * @param text The text to send.
      */
     public static void sendText(WebElement element, String text) {
-        waitForElementToBeVisible(element, 10).sendKeys(text);
+        WaitBudget.await(element, timeout -> DomWait.visibilityOf(element, timeout)).sendKeys(text);
     }
 
     /**
-     * Clicks on a WebElement after waiting for it to be clickable.
+     * Clicks on a WebElement after waiting for it to be clickable, with a timeout budgeted from its history.
      *
      * @param element The WebElement to click.
      */
     public static void clickElement(WebElement element) {
-        waitForElementToBeClickable(element, 10).click();
+        WaitBudget.await(element, timeout -> DomWait.elementToBeClickable(element, timeout, null)).click();
     }
 
     /**
-     * Scrolls the element into view and clicks it after waiting for it to be clickable.
+     * Scrolls the element into view and clicks it after waiting for it to be clickable,
+     * with a timeout budgeted from its history.
      *
      * @param element The WebElement to click.
      */
     public static void scrollIntoViewAndClick(WebElement element) {
-        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-        waitForElementToBeClickable(element, 10).click();
+        ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+        WaitBudget.await(element, timeout -> DomWait.elementToBeClickable(element, timeout, null)).click();
     }
 
+    /**
+     * Checks whether a WebElement is displayed, waiting for it with a timeout budgeted from its history.
+     *
+     * @param element The WebElement to check.
+     * @return True if the WebElement is displayed.
+     */
     public static boolean isDisplayed(WebElement element) {
-        return waitForElementToBeVisible(element, 10).isDisplayed();
+        return WaitBudget.await(element, timeout -> DomWait.visibilityOf(element, timeout)).isDisplayed();
     }
 
     /**
@@ -108,13 +122,13 @@ public class SelUtil extends SeleniumTestBase {
     }
 
     /**
-     * Retrieves the text of a WebElement after waiting for it to be visible.
+     * Retrieves the text of a WebElement after waiting for it to be visible, with a timeout budgeted from its history.
      *
      * @param element The WebElement to retrieve text from.
      * @return The text of the WebElement.
      */
     public static String getText(WebElement element) {
-        return waitForElementToBeVisible(element, 10).getText();
+        return WaitBudget.await(element, timeout -> DomWait.visibilityOf(element, timeout)).getText();
     }
 
     /**
@@ -125,49 +139,208 @@ public class SelUtil extends SeleniumTestBase {
      * @return True if the WebElement becomes invisible, false otherwise.
      */
     public static boolean waitForElementInvisible(WebElement element, int timeout) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeout)).until(ExpectedConditions.invisibilityOf(element));
+        return DomWait.invisibilityOf(element, Duration.ofSeconds(timeout));
     }
 
     /**
-     * Waits for a WebElement to be visible using FluentWait with a specified timeout and polling interval.
+     * Waits for a WebElement to be visible with a specified timeout.
+     * Kept for compatibility; resolves through the event-driven DomWait engine instead of fixed-interval polling.
      *
      * @param element The WebElement to wait for.
      * @param timeout The timeout in seconds.
      * @return The visible WebElement.
      */
     public static WebElement fluentWaitVisibilityOfElementLocated(WebElement element, int timeout) {
-        return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(5))
-                .ignoring(java.util.NoSuchElementException.class)
-                .until(ExpectedConditions.visibilityOf(element));
+        return DomWait.visibilityOf(element, Duration.ofSeconds(timeout));
     }
 
     /**
-     * Waits for a WebElement to be clickable using FluentWait with a specified timeout and polling interval.
+     * Waits for a WebElement to be clickable with a specified timeout.
+     * Kept for compatibility; resolves through the event-driven DomWait engine instead of fixed-interval polling.
      *
      * @param element The WebElement to wait for.
      * @param timeout The timeout in seconds.
      * @return The clickable WebElement.
      */
     public static WebElement fluentWaitElementToBeClickable(WebElement element, int timeout) {
-        return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(5))
-                .ignoring(java.util.NoSuchElementException.class)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return DomWait.elementToBeClickable(element, Duration.ofSeconds(timeout), null);
     }
 
     /**
-     * Waits for a WebElement to be clickable using FluentWait with a specified timeout and polling interval.
+     * Waits for a WebElement to be clickable with a specified timeout, ignoring the given exception while checking.
+     * Kept for compatibility; resolves through the event-driven DomWait engine instead of fixed-interval polling.
      *
      * @param element The WebElement to wait for.
      * @param timeout The timeout in seconds.
+     * @param exceptionToIgnore The exception to ignore while checking the condition.
      * @return The clickable WebElement.
      */
     public static WebElement fluentWaitElementToBeClickable(WebElement element, int timeout, Class<? extends Throwable> exceptionToIgnore) {
-        return new FluentWait<>(driver)
-                .withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(1))
-                .ignoring(exceptionToIgnore)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return DomWait.elementToBeClickable(element, Duration.ofSeconds(timeout), exceptionToIgnore);
+    }
+
+    /**
+     * Script that reports the current document and how long ago its last resource finished loading.
+     */
+    private static final String NETWORK_STATE_SCRIPT =
+            "var entries = performance.getEntriesByType('resource'), last = 0;"
+            + "for (var i = 0; i < entries.length; i++) { last = Math.max(last, entries[i].responseEnd); }"
+            + "return {origin: String(performance.timeOrigin), state: document.readyState,"
+            + " resources: entries.length, idle: performance.now() - last};";
+
+    /**
+     * Opens a URL and returns as soon as the page object reports that it is ready, or the network has been quiet.
+     *
+     * @param url The URL to open.
+     * @param page The page object whose readiness condition should be awaited.
+     * @see #navigate(String, ExpectedCondition)
+     */
+    public static void navigate(String url, PageReadiness page) {
+        navigate(url, page.readinessCondition());
+    }
+
+    /**
+     * Opens a URL and returns as soon as the readiness condition holds on the new document, or no resource has finished
+     * loading for network_quiet_ms after the DOM was parsed, whichever comes first. Meant to be used with the eager or
+     * none page-load strategy, so the driver does not block until every subresource has loaded.
+     * Network quiet is read from the Resource Timing API, which only sees finished requests.
+     *
+     * @param url The URL to open.
+     * @param readiness The condition that marks the page as ready, or null to wait for network quiet only.
+     * @throws TimeoutException If neither happens within navigation_timeout_seconds.
+     */
+    @SuppressWarnings("unchecked")
+    public static void navigate(String url, ExpectedCondition<?> readiness) {
+        WebDriver driver = getDriver();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long quietMillis = ConfigReader.getInt("network_quiet_ms", 500);
+        long timeout = ConfigReader.getInt("navigation_timeout_seconds", 30) * 1000L;
+        String previousOrigin = null;
+        try {
+            previousOrigin = String.valueOf(((Map<String, Object>) js.executeScript(NETWORK_STATE_SCRIPT)).get("origin"));
+        } catch (WebDriverException e) {
+            // No document yet, any document seen after get() is the new one.
+        }
+        long start = System.currentTimeMillis();
+        driver.get(url);
+        long interval = 50;
+        long resources = -1;
+        while (true) {
+            try {
+                Map<String, Object> state = (Map<String, Object>) js.executeScript(NETWORK_STATE_SCRIPT);
+                boolean newDocument = !String.valueOf(state.get("origin")).equals(previousOrigin);
+                if (newDocument && !"loading".equals(state.get("state"))) {
+                    if (readiness != null && isTrue(readiness.apply(driver))) {
+                        infoLog("Page ready in " + (System.currentTimeMillis() - start) + " ms: " + url);
+                        return;
+                    }
+                    long count = ((Number) state.get("resources")).longValue();
+                    if (count == resources && ((Number) state.get("idle")).doubleValue() >= quietMillis) {
+                        infoLog("Network quiet for " + quietMillis + " ms after " + (System.currentTimeMillis() - start) + " ms: " + url);
+                        return;
+                    }
+                    resources = count;
+                }
+            } catch (WebDriverException e) {
+                // The document is being replaced or the element is not there yet, check again.
+            }
+            if (System.currentTimeMillis() - start > timeout) {
+                throw new TimeoutException("Page did not become ready within " + timeout + " ms: " + url);
+            }
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + url, e);
+            }
+            interval = Math.min(250, interval * 2);
+        }
+    }
+
+    private static boolean isTrue(Object result) {
+        return result != null && !Boolean.FALSE.equals(result);
+    }
+
+    /**
+     * Script that reads the text, visibility and requested attributes of every element in one execution.
+     */
+    private static final String SNAPSHOT_SCRIPT =
+            "var elements = arguments[0], names = arguments[1];"
+            + DomWait.SHOWN_FUNCTION
+            + "return elements.map(function (e) {"
+            + "  var attributes = {};"
+            + "  names.forEach(function (name) { attributes[name] = e.getAttribute(name); });"
+            + "  return {text: (e.innerText || e.textContent || '').trim(), visible: shown(e), attributes: attributes};"
+            + "});";
+
+    /**
+     * Collects the text, visibility and the given attributes of a whole list of elements in a single script execution,
+     * instead of one WebDriver round-trip per element and property.
+     *
+     * @param elements The WebElements to read, e.g. a PageFactory list.
+     * @param attributes The attribute names to collect for every element.
+     * @return One snapshot per element, in the same order as the list.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ElementSnapshot> snapshot(List<WebElement> elements, String... attributes) {
+        // Copy once so a PageFactory list proxy locates its elements a single time.
+        List<WebElement> located = new ArrayList<>(elements);
+        List<ElementSnapshot> snapshots = new ArrayList<>(located.size());
+        if (located.isEmpty()) {
+            return snapshots;
+        }
+        List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) getDriver())
+                .executeScript(SNAPSHOT_SCRIPT, located, List.of(attributes));
+        for (Map<String, Object> result : results) {
+            Map<String, String> values = new HashMap<>();
+            ((Map<String, Object>) result.get("attributes"))
+                    .forEach((name, value) -> values.put(name, value == null ? null : String.valueOf(value)));
+            snapshots.add(new ElementSnapshot(String.valueOf(result.get("text")),
+                    Boolean.TRUE.equals(result.get("visible")), values));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Retrieves the text of every element in a list with a single script execution.
+     *
+     * @param elements The WebElements to read.
+     * @return The texts, in the same order as the list.
+     */
+    public static List<String> getTexts(List<WebElement> elements) {
+        List<String> texts = new ArrayList<>();
+        for (ElementSnapshot snapshot : snapshot(elements)) {
+            texts.add(snapshot.getText());
+        }
+        return texts;
+    }
+
+    /**
+     * Retrieves an attribute of every element in a list with a single script execution.
+     *
+     * @param elements The WebElements to read.
+     * @param attribute The attribute name.
+     * @return The attribute values (null where an element does not have it), in the same order as the list.
+     */
+    public static List<String> getAttributes(List<WebElement> elements, String attribute) {
+        List<String> values = new ArrayList<>();
+        for (ElementSnapshot snapshot : snapshot(elements, attribute)) {
+            values.add(snapshot.getAttribute(attribute));
+        }
+        return values;
+    }
+
+    /**
+     * Retrieves the visibility of every element in a list with a single script execution.
+     *
+     * @param elements The WebElements to read.
+     * @return True for each displayed element, in the same order as the list.
+     */
+    public static List<Boolean> getVisibility(List<WebElement> elements) {
+        List<Boolean> visibility = new ArrayList<>();
+        for (ElementSnapshot snapshot : snapshot(elements)) {
+            visibility.add(snapshot.isVisible());
+        }
+        return visibility;
     }
-}
\ No newline at end of file
+}
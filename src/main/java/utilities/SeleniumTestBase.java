@@ -1,9 +1,9 @@
 package utilities;
 
 import io.cucumber.java.Scenario;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -11,11 +11,13 @@ import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SeleniumTestBase is a utility class for setting up and managing Selenium WebDriver instances.
@@ -27,61 +29,60 @@ import java.util.Properties;
  * @see EdgeDriver
  * @see ChromeOptions
  * @see EdgeOptions
- * @see FileUtils
+ * @see ScreenshotPipeline
+ * @see NetworkProfile
+ * @see CommandTimer
  * @see Properties
  */
 public class SeleniumTestBase extends BaseClass {
 
     /**
-     * Properties object to load configuration from a properties file.
+     * Configuration properties, loaded once per JVM by ConfigReader rather than on every instantiation.
      */
-    public Properties configProperties = new Properties();
+    public Properties configProperties = ConfigReader.getProperties();
 
     /**
-     * FileInputStream to read the configuration properties file.
+     * Counter used to give every browser session its own Chrome profile directory,
+     * so that parallel sessions never lock each other's profile.
      */
-    public FileInputStream configFile;
+    private static final AtomicInteger profileCounter = new AtomicInteger();
 
     /**
-     * Static block to load the configuration properties file.
+     * Retrieves the WebDriver bound to the current thread.
+     *
+     * @return The WebDriver instance, or null if no browser is open on this thread.
+     * @see TestContext#getDriver()
      */
-    {
-        try {
-            configFile = new FileInputStream(Constants.configFilePath);
-            configProperties.load(configFile);
-        } catch (Exception e) {
-            failLog("Unable to load sql.properties file");
-        }
+    public static WebDriver getDriver() {
+        return TestContext.getDriver();
     }
 
     /**
-     * WebDriver instance for browser automation.
-     */
-    public static WebDriver driver;
-
-    /**
-     * ChromeOptions instance to configure Chrome browser settings.
-     */
-    ChromeOptions chromeOptions = new ChromeOptions();
-
-    /**
-     * EdgeOptions instance to configure Edge browser settings.
-     */
-    EdgeOptions edgeOptions = new EdgeOptions();
-
-    /**
-     * HashMap to store browser preferences.
+     * Sets up the browser based on the configuration properties and binds it to the current thread.
+     *
+     * @return The WebDriver instance for the configured browser.
      */
-    HashMap<String, Object> browser_pref = new HashMap<>();
+    public WebDriver browserSetup() {
+        WebDriver driver = createDriver();
+        TestContext.setDriver(driver);
+        return driver;
+    }
 
     /**
-     * Sets up the browser based on the configuration properties.
+     * Launches a new browser session based on the configuration properties without binding it to any thread.
+     * Each call builds its own options, so sessions can be launched concurrently (e.g. by the BrowserPool).
+     * The session is decorated with the CommandTimer and the configured network profile, if any, is applied to it.
      *
      * @return The WebDriver instance for the configured browser.
+     * @see BrowserPool
      */
-    public WebDriver browserSetup() {
-        String browser = configProperties.getProperty("browser");
-        String browser_mode = configProperties.getProperty("browser_mode");
+    public WebDriver createDriver() {
+        WebDriver driver = null;
+        ChromeOptions chromeOptions = new ChromeOptions();
+        EdgeOptions edgeOptions = new EdgeOptions();
+        HashMap<String, Object> browser_pref = new HashMap<>();
+        String browser = ConfigReader.getProperty("browser");
+        String browser_mode = ConfigReader.getProperty("browser_mode", "with_head");
         browser_pref.put("download.default_directory", Constants.downloadPath);
         browser_pref.put("profile.default_content_setting_value.notifications", 2);
         browser_pref.put("credentials_enable_service", false);
@@ -89,7 +90,7 @@ public class SeleniumTestBase extends BaseClass {
         browser_pref.put("credential_enable_service", false);
         switch (browser) {
             case "chrome":
-                chromeOptions.addArguments("user-data-dir=C:/temp/freshprofile");
+                chromeOptions.addArguments("user-data-dir=C:/temp/freshprofile_" + profileCounter.incrementAndGet());
                 chromeOptions.addArguments("--disable-features=PasswordCheck,AutofillKeyedData,SafeBrowsingEnhancedProtection");
                 chromeOptions.addArguments("--disable-sync");
                 chromeOptions.addArguments("--start-maximized");
@@ -97,6 +98,7 @@ public class SeleniumTestBase extends BaseClass {
                 chromeOptions.addArguments("--disable-extensions");
                 chromeOptions.addArguments("--disable-popup-blocking");
                 chromeOptions.setExperimentalOption("prefs", browser_pref);
+                chromeOptions.setPageLoadStrategy(pageLoadStrategy(browser));
                 if (browser_mode.equalsIgnoreCase("headless")) {
                     chromeOptions.addArguments("--headless");
                 }
@@ -108,6 +110,7 @@ public class SeleniumTestBase extends BaseClass {
                 edgeOptions.addArguments("--disable-extensions");
                 edgeOptions.addArguments("--disable-popup-blocking");
                 edgeOptions.setExperimentalOption("prefs", browser_pref);
+                edgeOptions.setPageLoadStrategy(pageLoadStrategy(browser));
                 if (browser_mode.equalsIgnoreCase("headless")) {
                     edgeOptions.addArguments("--headless");
                 }
@@ -116,46 +119,78 @@ public class SeleniumTestBase extends BaseClass {
             default:
                 failLog("Browser not supported: " + browser);
         }
+        driver = CommandTimer.decorate(driver);
+        NetworkProfile.apply(driver);
         return driver;
     }
 
     /**
-     * Captures a screenshot and attaches it to the Cucumber scenario.
+     * Reads the page-load strategy configured for a browser (page_load_strategy.&lt;browser&gt;),
+     * falling back to page_load_strategy and then to normal.
+     *
+     * @param browser The browser name, e.g. chrome or edge.
+     * @return The page-load strategy: NORMAL, EAGER or NONE.
+     */
+    private PageLoadStrategy pageLoadStrategy(String browser) {
+        String strategy = ConfigReader.getProperty("page_load_strategy." + browser,
+                ConfigReader.getProperty("page_load_strategy", "normal"));
+        try {
+            return PageLoadStrategy.fromString(strategy.toLowerCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown page load strategy " + strategy + ", using normal");
+            return PageLoadStrategy.NORMAL;
+        }
+    }
+
+    /**
+     * Captures a screenshot and queues it on the ScreenshotPipeline; it is attached to the Cucumber scenario
+     * when the pipeline is flushed at scenario end.
      *
      * @param scenario The Cucumber scenario to attach the screenshot to.
      */
     public void captureScreenshot(Scenario scenario) {
+        WebDriver driver = getDriver();
         if (driver != null) {
-            final byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            scenario.attach(screenshot, "image/png", scenario.getName());
+            ScreenshotPipeline.capture(driver, scenario.getName());
         } else {
             failLog("Driver is null, unable to capture screenshot");
         }
     }
 
     /**
-     * Closes the browser and quits the WebDriver instance.
+     * Closes the browser, quits the WebDriver instance and unbinds it from the current thread.
      */
     public void closeBrowser() {
+        WebDriver driver = getDriver();
         if (driver != null) {
             driver.quit();
+            TestContext.removeDriver();
         } else {
             failLog("Driver is null, unable to close browser");
         }
     }
 
     /**
-     * Captures a screenshot and saves it to the specified path.
+     * Captures a screenshot and saves it to the specified path. The file is written by the ScreenshotPipeline;
+     * this method waits for the write, so the file exists when the path is returned.
      *
      * @param screenshotName The name of the screenshot file.
-     * @return The full path of the saved screenshot file.
+     * @return The full path of the screenshot file.
      * @throws IOException If an error occurs while saving the screenshot.
      */
     public String captureScreenshot(String screenshotName) throws IOException {
+        WebDriver driver = getDriver();
         if (driver != null) {
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
             screenshotName = Constants.screenshotPath + FilenameUtils.getBaseName(screenshotName) + "_" + System.currentTimeMillis() + ".png";
-            FileUtils.copyFile(screenshot, new File(screenshotName));
+            try {
+                ScreenshotPipeline.write(screenshot, Paths.get(screenshotName)).get();
+            } catch (ExecutionException e) {
+                throw new IOException("Unable to write screenshot " + screenshotName, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing screenshot " + screenshotName);
+            }
             return screenshotName;
         } else {
             failLog("Driver is null, unable to capture screenshot");
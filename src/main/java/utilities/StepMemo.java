@@ -0,0 +1,48 @@
+package utilities;
+
+import java.util.function.Supplier;
+
+/**
+ * StepMemo memoises a value for the duration of a single Cucumber step.
+ * Page objects use it so that repeated reads of the same element list within a step cost nothing;
+ * the value is loaded again on the first read of the next step, or after {@link #invalidate()}.
+ *
+ * @param <T> The type of the memoised value.
+ * @see TestContext#getStepIndex()
+ */
+public class StepMemo<T> {
+
+    private final Supplier<T> loader;
+    private T value;
+    private long step = -1;
+
+    /**
+     * Creates a memo that loads its value with the given supplier.
+     *
+     * @param loader The supplier that reads the value from the page.
+     */
+    public StepMemo(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Retrieves the value, loading it if it has not been read during the current step.
+     *
+     * @return The memoised value.
+     */
+    public T get() {
+        long currentStep = TestContext.getStepIndex();
+        if (value == null || step != currentStep) {
+            value = loader.get();
+            step = currentStep;
+        }
+        return value;
+    }
+
+    /**
+     * Discards the memoised value, e.g. after an action that changes the page.
+     */
+    public void invalidate() {
+        value = null;
+    }
+}
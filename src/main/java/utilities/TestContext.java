@@ -0,0 +1,98 @@
+package utilities;
+
+import io.cucumber.java.Scenario;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * TestContext is a thread-confined registry for the WebDriver and Cucumber scenario of the running test.
+ * Every scenario thread sees only its own browser session and scenario, so scenarios can run in parallel
+ * without sessions or report logs bleeding into each other.
+ *
+ * @see WebDriver
+ * @see Scenario
+ * @see ThreadLocal
+ */
+public class TestContext {
+
+    /**
+     * WebDriver instance bound to the current thread.
+     */
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+
+    /**
+     * Cucumber scenario bound to the current thread.
+     */
+    private static final ThreadLocal<Scenario> scenario = new ThreadLocal<>();
+
+    /**
+     * Index of the Cucumber step currently running on this thread.
+     */
+    private static final ThreadLocal<Long> stepIndex = ThreadLocal.withInitial(() -> 0L);
+
+    /**
+     * Retrieves the WebDriver bound to the current thread.
+     *
+     * @return The WebDriver instance, or null if no browser is open on this thread.
+     */
+    public static WebDriver getDriver() {
+        return driver.get();
+    }
+
+    /**
+     * Binds a WebDriver to the current thread.
+     *
+     * @param webDriver The WebDriver instance to bind.
+     */
+    public static void setDriver(WebDriver webDriver) {
+        driver.set(webDriver);
+    }
+
+    /**
+     * Removes the WebDriver bound to the current thread.
+     */
+    public static void removeDriver() {
+        driver.remove();
+    }
+
+    /**
+     * Retrieves the Cucumber scenario bound to the current thread.
+     *
+     * @return The Scenario instance, or null if no scenario is running on this thread.
+     */
+    public static Scenario getScenario() {
+        return scenario.get();
+    }
+
+    /**
+     * Binds a Cucumber scenario to the current thread.
+     *
+     * @param currentScenario The Scenario instance to bind.
+     */
+    public static void setScenario(Scenario currentScenario) {
+        scenario.set(currentScenario);
+    }
+
+    /**
+     * Retrieves the index of the step currently running on this thread.
+     *
+     * @return The step index; it changes every time a new step starts.
+     */
+    public static long getStepIndex() {
+        return stepIndex.get();
+    }
+
+    /**
+     * Marks the start of a new step on the current thread.
+     */
+    public static void nextStep() {
+        stepIndex.set(stepIndex.get() + 1);
+    }
+
+    /**
+     * Clears the WebDriver and scenario bound to the current thread.
+     */
+    public static void clear() {
+        driver.remove();
+        scenario.remove();
+    }
+}
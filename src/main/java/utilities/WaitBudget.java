@@ -0,0 +1,207 @@
+package utilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * WaitBudget derives element wait timeouts from how long each page-object field took to become ready in earlier runs.
+ * The observed time-to-ready of every wait is kept in a small history file; once a field has enough samples its timeout
+ * is a high percentile of that history times a safety multiplier plus a margin, clamped to a configured range.
+ * A wait that is far slower than its history is flagged as a performance regression in the report.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>wait_budget_enabled - false to always use wait_budget_default_seconds</li>
+ *     <li>wait_budget_default_seconds - timeout used until a field has wait_budget_min_samples samples</li>
+ *     <li>wait_budget_percentile, wait_budget_margin_multiplier, wait_budget_margin_ms - how the timeout is derived</li>
+ *     <li>wait_budget_min_seconds, wait_budget_max_seconds - bounds of a derived timeout</li>
+ *     <li>wait_budget_regression_factor - how many times slower than the history's p95 a wait must be to be flagged</li>
+ *     <li>wait_budget_history_size - number of samples kept per field</li>
+ * </ul>
+ *
+ * @see DomWait
+ * @see SelUtil
+ * @see Constants#waitHistoryFile
+ */
+public class WaitBudget extends BaseClass {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, List<Long>>>() { }.getType();
+
+    /**
+     * Recent time-to-ready samples in milliseconds, keyed by element locator. Loaded lazily from the history file.
+     */
+    private static volatile Map<String, Deque<Long>> history;
+
+    /**
+     * Runs a wait with the budgeted timeout of an element and records how long it took.
+     * A wait that times out is not recorded, so elements that never appear do not inflate the history.
+     *
+     * @param element The WebElement being waited for, usually a PageFactory field.
+     * @param wait The wait to run, given the timeout to use.
+     * @param <T> The result type of the wait.
+     * @return The result of the wait.
+     */
+    public static <T> T await(WebElement element, Function<Duration, T> wait) {
+        if (!ConfigReader.getBoolean("wait_budget_enabled", true)) {
+            return wait.apply(Duration.ofSeconds(ConfigReader.getInt("wait_budget_default_seconds", 10)));
+        }
+        String key = keyOf(element);
+        long start = System.nanoTime();
+        T result = wait.apply(timeoutFor(key));
+        record(key, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Calculates the timeout for an element from its history.
+     *
+     * @param key The element locator.
+     * @return The budgeted timeout, or the default timeout if there are too few samples.
+     */
+    public static Duration timeoutFor(String key) {
+        List<Long> samples = samplesOf(key);
+        long defaultMillis = ConfigReader.getInt("wait_budget_default_seconds", 10) * 1000L;
+        if (samples.size() < ConfigReader.getInt("wait_budget_min_samples", 5)) {
+            return Duration.ofMillis(defaultMillis);
+        }
+        long percentile = percentile(samples, ConfigReader.getDouble("wait_budget_percentile", 99));
+        long budget = (long) (percentile * ConfigReader.getDouble("wait_budget_margin_multiplier", 2.0))
+                + ConfigReader.getInt("wait_budget_margin_ms", 1000);
+        long min = ConfigReader.getInt("wait_budget_min_seconds", 2) * 1000L;
+        long max = ConfigReader.getInt("wait_budget_max_seconds", 30) * 1000L;
+        return Duration.ofMillis(Math.max(min, Math.min(max, budget)));
+    }
+
+    /**
+     * Writes the history to the history file. Entries written by other runs since it was loaded are merged in.
+     */
+    public static synchronized void save() {
+        if (history == null) {
+            return;
+        }
+        Path file = Paths.get(Constants.waitHistoryFile);
+        Map<String, List<Long>> merged = new TreeMap<>(read(file));
+        for (Map.Entry<String, Deque<Long>> entry : history.entrySet()) {
+            synchronized (entry.getValue()) {
+                merged.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "wait-budget", ".tmp");
+            Files.writeString(temp, gson.toJson(merged), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            System.out.println("Unable to write wait history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a sample to the history of an element and flags it if it is far slower than the history.
+     */
+    private static void record(String key, long millis) {
+        List<Long> samples = samplesOf(key);
+        if (samples.size() >= ConfigReader.getInt("wait_budget_min_samples", 5)) {
+            long p95 = percentile(samples, 95);
+            double factor = ConfigReader.getDouble("wait_budget_regression_factor", 3.0);
+            if (millis > Math.max(p95, 100) * factor) {
+                infoLog(String.format("Performance regression: %s took %d ms to become ready, %.1fx its p95 of %d ms",
+                        key, millis, (double) millis / Math.max(1, p95), p95));
+            }
+        }
+        Deque<Long> deque = history().computeIfAbsent(key, k -> new ArrayDeque<>());
+        int size = Math.max(1, ConfigReader.getInt("wait_budget_history_size", 50));
+        synchronized (deque) {
+            deque.addLast(millis);
+            while (deque.size() > size) {
+                deque.removeFirst();
+            }
+        }
+    }
+
+    private static List<Long> samplesOf(String key) {
+        Deque<Long> deque = history().get(key);
+        if (deque == null) {
+            return Collections.emptyList();
+        }
+        synchronized (deque) {
+            return new ArrayList<>(deque);
+        }
+    }
+
+    private static long percentile(List<Long> samples, double percentile) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(sorted.size() * percentile / 100.0) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    /**
+     * Builds a key that identifies a page-object field across runs. PageFactory proxies describe their locator
+     * (e.g. "Proxy element for: DefaultElementLocator 'By.id: userName'"); located elements end with "-> id: userName]".
+     */
+    private static String keyOf(WebElement element) {
+        String description = String.valueOf(element);
+        int quote = description.indexOf('\'');
+        if (quote >= 0 && description.lastIndexOf('\'') > quote) {
+            return description.substring(quote + 1, description.lastIndexOf('\''));
+        }
+        int arrow = description.lastIndexOf("-> ");
+        if (arrow >= 0) {
+            return description.substring(arrow + 3).replaceAll("]+$", "");
+        }
+        return description;
+    }
+
+    /**
+     * Lazily loads the history file.
+     */
+    private static Map<String, Deque<Long>> history() {
+        Map<String, Deque<Long>> map = history;
+        if (map == null) {
+            synchronized (WaitBudget.class) {
+                if (history == null) {
+                    Map<String, Deque<Long>> loaded = new ConcurrentHashMap<>();
+                    read(Paths.get(Constants.waitHistoryFile)).forEach((key, samples) -> loaded.put(key, new ArrayDeque<>(samples)));
+                    history = loaded;
+                }
+                map = history;
+            }
+        }
+        return map;
+    }
+
+    private static Map<String, List<Long>> read(Path file) {
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, List<Long>> stored = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), HISTORY_TYPE);
+            return stored == null ? Collections.emptyMap() : stored;
+        } catch (Exception e) {
+            System.out.println("Unable to read wait history " + file + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package hooks;
 
+import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
+import utilities.ApiClient;
+import utilities.ApiResponseCache;
+import utilities.ApiStubServer;
 import utilities.BaseClass;
-import utilities.SeleniumTestBase;
-import static utilities.SeleniumTestBase.driver;
+import utilities.BrowserPool;
+import utilities.CommandTimer;
+import utilities.ParallelLimits;
+import utilities.ScenarioLog;
+import utilities.ScreenshotPipeline;
+import utilities.TestContext;
+import utilities.WaitBudget;
+
+import java.io.IOException;
 
 /**
  * The Hooks class contains Cucumber hooks that are executed before and after specific steps or scenarios.
@@ -14,28 +28,118 @@ import static utilities.SeleniumTestBase.driver;
 public class Hooks extends BaseClass {
 
     /**
-     * Executes before each scenario to set the current scenario context.
+     * Executes once before all scenarios to record or replay API exchanges as set by api_stub_mode.
+     * @throws IOException If the API stubs cannot be read or the stub server cannot be started.
+     */
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        ApiStubServer.startMode();
+    }
+
+    /**
+     * Executes before each scenario, ahead of every other Before hook, to set the current scenario context.
      * @param scenario The current Cucumber scenario being executed.
      */
-    @Before
+    @Before(order = 0)
     public void beforeHook(Scenario scenario) {
-        BaseClass.scenario = scenario;
+        TestContext.setScenario(scenario);
+    }
+
+    /**
+     * Waits for a free slot for each tag of the scenario that has a parallel_limit, before the browser is leased.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @Before(order = 1)
+    public void acquireParallelSlot(Scenario scenario) {
+        ParallelLimits.acquire(scenario.getSourceTagNames());
+    }
+
+    /**
+     * Adds a table of the WebDriver command timings of this scenario to the report.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @After(order = 2)
+    public void commandTimingSummary(Scenario scenario) {
+        CommandTimer.reportScenario(scenario);
+    }
+
+    /**
+     * Adds the API response cache hits, misses and revalidations of this scenario to the report.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @After(order = 2)
+    public void apiCacheSummary(Scenario scenario) {
+        ApiResponseCache.reportScenario(scenario);
+    }
+
+    /**
+     * Attaches the screenshots processed in the background during this scenario, so they land in the report.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @After(order = 1)
+    public void flushScreenshots(Scenario scenario) {
+        ScreenshotPipeline.flush(scenario);
+    }
+
+    /**
+     * Executes after every other After hook to write the remaining scenario log and release the parallel slots
+     * and the scenario context of the current thread.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @After(order = 0)
+    public void afterHook(Scenario scenario) {
+        ScenarioLog.flush(scenario);
+        ParallelLimits.release();
+        TestContext.clear();
+    }
+
+    /**
+     * Marks the start of a new step, so step-scoped page snapshots are read again.
+     */
+    @BeforeStep
+    public void beforeStepHook() {
+        TestContext.nextStep();
+    }
+
+    /**
+     * Executes after every other AfterStep hook to write the messages logged during the step
+     * to the report, console and log file.
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @AfterStep(order = 0)
+    public void flushStepLog(Scenario scenario) {
+        ScenarioLog.flush(scenario);
     }
 
     /**
      * Captures a screenshot after each step if the scenario has failed.
-     * Ensures the WebDriver instance is valid before attempting to capture the screenshot.
+     * Only the raw capture happens here; encoding and writing run on the ScreenshotPipeline workers.
      * @param scenario The current Cucumber scenario being executed.
      */
     @AfterStep
     public void addScreenshot(Scenario scenario) {
-        if (scenario.isFailed() && !driver.toString().contains("null")) {
+        if (scenario.isFailed() && TestContext.getDriver() != null) {
             try {
-                SeleniumTestBase sel = new SeleniumTestBase();
-                sel.captureScreenshot(scenario);
+                ScreenshotPipeline.capture(TestContext.getDriver(), scenario.getName());
             } catch (Exception e) {
                 failLog("Unable to capture screenshot: " + e.getMessage());
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Executes once after all scenarios to quit pooled browsers, print the pool statistics,
+     * write the WebDriver command timings, API cache counters and wait history, stop the screenshot workers and
+     * write the recorded API exchanges or stop the API stub server.
+     */
+    @AfterAll
+    public static void afterAll() {
+        BrowserPool.shutdown();
+        CommandTimer.writeReport();
+        WaitBudget.save();
+        ScreenshotPipeline.shutdown();
+        ApiClient.logStats();
+        ApiResponseCache.writeReport();
+        ApiStubServer.stopMode();
+    }
+}
@@ -0,0 +1,233 @@
+package runner;
+
+import io.cucumber.core.options.CommandlineOptionsParser;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.Runtime;
+import io.cucumber.plugin.Plugin;
+import utilities.ConfigReader;
+import utilities.Constants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CucumberLauncher runs the features through the Cucumber runtime directly instead of the JUnit runner,
+ * so scenarios (including every Examples row) can run on several threads while still reporting to a single
+ * Extent report. It uses the same features, glue and Extent plugin as RunnerTest.
+ * <p>
+ * Configuration (configuration.properties or -D system properties):
+ * <ul>
+ *     <li>parallel_tags - tag expression of the scenarios to run</li>
+ *     <li>parallel_threads - number of scenarios run at the same time</li>
+ *     <li>shard.index, shard.total - run only one of shard.total balanced shards; the output of each shard goes to
+ *     Reports/shards/shard-&lt;index&gt; and is combined by ShardMerger</li>
+ *     <li>rerun_failed - true to run only the scenarios recorded as failed by the FailureRecorder</li>
+ * </ul>
+ * Per-tag caps on concurrency are applied by the hooks through ParallelLimits.
+ * Pickles are ordered longest first from the durations of earlier runs (schedule_by_duration), and the durations
+ * of this run are added to that history.
+ *
+ * @see RunnerTest
+ * @see ParallelRunner
+ * @see utilities.ParallelLimits
+ * @see LptSchedule
+ * @see ShardSelection
+ * @see FailureRecorder
+ * @see StreamingReport
+ * @see StepMetrics
+ * @see RunHistoryRecorder
+ * @see FlightRecording
+ */
+public class CucumberLauncher {
+
+    public static final String FEATURES = "src/test/resources/features";
+    public static final String[] GLUE = {"stepDefinitions", "hooks"};
+    public static final String EXTENT_PLUGIN = "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:";
+    public static final String SHARDS_FOLDER = "shards";
+    public static final String PERF_FOLDER = "perf";
+
+    /**
+     * Runs the scenarios selected by parallel_tags on parallel_threads threads.
+     *
+     * @return The Cucumber exit status, 0 if every scenario passed.
+     */
+    public static byte run() {
+        int threads = ConfigReader.getInt("parallel_threads", 4);
+        if (ConfigReader.getBoolean("rerun_failed", false)) {
+            return rerunFailed(threads);
+        }
+        return run(ConfigReader.getProperty("parallel_tags", ""), threads, List.of(FEATURES));
+    }
+
+    /**
+     * Runs only the pickles recorded as failed by the FailureRecorder, whatever their tags.
+     * Pickles that pass are removed from the record, so repeated reruns shrink to the remaining failures.
+     *
+     * @param threads The number of scenarios run at the same time.
+     * @return The Cucumber exit status, 0 if every rerun scenario passed or nothing was recorded as failed.
+     */
+    public static byte rerunFailed(int threads) {
+        Map<String, FailureRecorder.Failure> failures = FailureRecorder.load();
+        if (failures.isEmpty()) {
+            System.out.println("No failed scenarios recorded in " + Constants.failureRecordFile);
+            return 0;
+        }
+        System.out.println("Rerunning " + failures.size() + " failed scenarios:");
+        failures.forEach((location, failure) ->
+                System.out.println("  " + location + " " + failure.getScenario() + " [" + failure.getSignature() + "]"));
+        return run("", threads, new ArrayList<>(failures.keySet()));
+    }
+
+    /**
+     * Runs scenarios with the given tag expression and thread count.
+     *
+     * @param tags The tag expression, or an empty string to run every scenario.
+     * @param threads The number of scenarios run at the same time.
+     * @param features Feature paths, optionally with line numbers (path:line).
+     * @param plugins Additional plugins to register with the runtime.
+     * @return The Cucumber exit status, 0 if every scenario passed.
+     */
+    public static byte run(String tags, int threads, List<String> features, Plugin... plugins) {
+        return run(tags, threads, features, true, plugins);
+    }
+
+    /**
+     * Runs scenarios with the given tag expression and thread count.
+     *
+     * @param tags The tag expression, or an empty string to run every scenario.
+     * @param threads The number of scenarios run at the same time.
+     * @param features Feature paths, optionally with line numbers (path:line).
+     * @param record False for runs that are not real suite runs, e.g. performance runs against the stub server:
+     *               their durations, failures and results are then kept out of the duration history, the failure
+     *               record and the run history, and their streaming report, step metrics and Spark report go to
+     *               Reports/perf instead of the reports of the suite.
+     * @param plugins Additional plugins to register with the runtime.
+     * @return The Cucumber exit status, 0 if every scenario passed.
+     */
+    public static byte run(String tags, int threads, List<String> features, boolean record, Plugin... plugins) {
+        DurationHistory history = DurationHistory.load();
+        RuntimeOptionsBuilder options = options(tags, threads, features, record);
+        LptSchedule schedule = null;
+        Path shardDurations = null;
+        int shardTotal = ConfigReader.getInt("shard.total", 1);
+        if (shardTotal > 1) {
+            int shardIndex = ConfigReader.getInt("shard.index", 0);
+            if (shardIndex < 0 || shardIndex >= shardTotal) {
+                throw new IllegalArgumentException("shard.index must be between 0 and " + (shardTotal - 1) + ": " + shardIndex);
+            }
+            Path folder = shardFolder(shardIndex);
+            schedule = new LptSchedule(history, threads);
+            String sharedHistory = ConfigReader.getProperty("shard.history", "");
+            ShardSelection selection = sharedHistory.isEmpty()
+                    ? new ShardSelection(schedule, null, null, shardIndex, shardTotal)
+                    : new ShardSelection(schedule, DurationHistory.load(Paths.get(sharedHistory)),
+                            DurationHistory.digestOf(Paths.get(sharedHistory)), shardIndex, shardTotal);
+            options.setPickleOrder(selection);
+            try {
+                Files.createDirectories(folder);
+                Files.writeString(folder.resolve(ShardMerger.ASSIGNMENT_FILE), selection.getAssignmentId(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.out.println("Unable to write the shard assignment to " + folder + ": " + e.getMessage());
+            }
+            options.addPluginName("json:" + folder.resolve(ShardMerger.CUCUMBER_JSON).toString().replace('\\', '/'));
+            reportTo(options, folder);
+            System.setProperty("extent.reporter.json.start", "true");
+            System.setProperty("extent.reporter.json.out", folder.resolve(ShardMerger.EXTENT_JSON).toString());
+            shardDurations = folder.resolve(ShardMerger.DURATIONS_JSON);
+        } else if (!record) {
+            reportTo(options, Paths.get(Constants.reportsPath, PERF_FOLDER));
+        } else {
+            options.addPluginName(StreamingReport.class.getName());
+            options.addPluginName(StepMetrics.class.getName());
+            if (ConfigReader.getBoolean("schedule_by_duration", true)) {
+                schedule = new LptSchedule(history, threads);
+                options.setPickleOrder(schedule);
+            }
+        }
+        List<Plugin> allPlugins = new ArrayList<>(List.of(plugins));
+        if (record) {
+            allPlugins.add(new DurationRecorder(history, schedule, shardDurations));
+        }
+        Runtime runtime = Runtime.builder()
+                .withRuntimeOptions(options.build())
+                .withClassLoader(() -> CucumberLauncher.class.getClassLoader())
+                .withAdditionalPlugins(allPlugins.toArray(new Plugin[0]))
+                .build();
+        runtime.run();
+        return runtime.exitStatus();
+    }
+
+    /**
+     * Sends the streaming report, the step metrics and the Extent Spark report of a run to its own folder instead of
+     * the reports folder of the suite.
+     *
+     * @param options The options of the run.
+     * @param folder The folder to write the reports to.
+     */
+    private static void reportTo(RuntimeOptionsBuilder options, Path folder) {
+        options.addPluginName(StreamingReport.class.getName() + ":" + folder.resolve("stream").toString().replace('\\', '/'));
+        options.addPluginName(StepMetrics.class.getName() + ":" + folder.toString().replace('\\', '/'));
+        System.setProperty("extent.reporter.spark.out", folder.resolve("SparkReport.html").toString());
+    }
+
+    /**
+     * Resolves the folder a shard writes its Cucumber JSON, Extent output and durations to.
+     *
+     * @param index The zero-based index of the shard.
+     * @return The shard output folder under the reports folder.
+     */
+    public static Path shardFolder(int index) {
+        return Paths.get(Constants.reportsPath, SHARDS_FOLDER, "shard-" + index);
+    }
+
+    /**
+     * Builds the runtime options shared by every launcher mode.
+     *
+     * @param tags The tag expression, or an empty string to run every scenario.
+     * @param threads The number of scenarios run at the same time.
+     * @param features Feature paths, optionally with line numbers (path:line).
+     * @param record False to leave out the FailureRecorder and RunHistoryRecorder.
+     * @return The options builder, for modes that need to adjust it further.
+     */
+    static RuntimeOptionsBuilder options(String tags, int threads, List<String> features, boolean record) {
+        List<String> args = new ArrayList<>();
+        for (String glue : GLUE) {
+            args.add("--glue");
+            args.add(glue);
+        }
+        args.add("--plugin");
+        args.add(EXTENT_PLUGIN);
+        if (record) {
+            args.add("--plugin");
+            args.add(FailureRecorder.class.getName());
+            args.add("--plugin");
+            args.add(RunHistoryRecorder.class.getName());
+        }
+        args.add("--plugin");
+        args.add(FlightRecording.class.getName());
+        args.add("--monochrome");
+        args.add("--threads");
+        args.add(String.valueOf(Math.max(1, threads)));
+        if (!tags.isEmpty()) {
+            args.add("--tags");
+            args.add(tags);
+        }
+        args.addAll(features);
+        return new CommandlineOptionsParser(System.out).parse(args.toArray(new String[0]));
+    }
+
+    /**
+     * Runs the launcher from the command line and exits with the Cucumber exit status.
+     *
+     * @param args Not used; configure the run through system properties.
+     */
+    public static void main(String[] args) {
+        System.exit(run());
+    }
+}
@@ -0,0 +1,254 @@
+package runner;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import utilities.ConfigReader;
+import utilities.Constants;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DurationHistory stores how long every pickle (a scenario or a single Examples row) took in earlier runs,
+ * keyed by its feature path and line, e.g. src/test/resources/features/BooksAPI.feature:12.
+ * Durations are kept as an exponentially weighted mean so a single slow run does not dominate the estimate.
+ * Pickles without history are estimated from the median of their feature file, then of the whole history,
+ * then from schedule_default_estimate_ms.
+ *
+ * @see LptSchedule
+ * @see DurationRecorder
+ * @see Constants#durationHistoryFile
+ */
+public class DurationHistory {
+
+    /**
+     * Weight of the latest run in the mean duration of a pickle.
+     */
+    private static final double WEIGHT = 0.3;
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final Type HISTORY_TYPE = new TypeToken<Map<String, Entry>>() { }.getType();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of the pickles recorded since the history was loaded.
+     */
+    private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Recorded duration of a pickle.
+     */
+    static class Entry {
+        double meanMillis;
+        int runs;
+    }
+
+    /**
+     * Loads the history file, or starts an empty history if there is none.
+     *
+     * @return The duration history.
+     */
+    public static DurationHistory load() {
+        DurationHistory history = new DurationHistory();
+        history.entries.putAll(read(Paths.get(Constants.durationHistoryFile)));
+        return history;
+    }
+
+    /**
+     * Loads a given history file, e.g. one shared by every shard of a run.
+     *
+     * @param file The history file.
+     * @return The duration history.
+     * @throws IllegalArgumentException If the file does not exist.
+     */
+    public static DurationHistory load(Path file) {
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("Duration history " + file + " does not exist");
+        }
+        DurationHistory history = new DurationHistory();
+        history.entries.putAll(read(file));
+        return history;
+    }
+
+    /**
+     * Calculates a short digest of a history file, to check that several runs used the same history.
+     *
+     * @param file The history file.
+     * @return The first 16 hex digits of the SHA-256 of the file.
+     */
+    public static String digestOf(Path file) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to digest duration history " + file, e);
+        }
+    }
+
+    /**
+     * Builds the history key of a pickle from its feature URI and line.
+     *
+     * @param uri The URI of the feature file.
+     * @param line The line of the scenario or Examples row.
+     * @return The key, a path relative to the working directory followed by :line.
+     */
+    public static String keyOf(URI uri, int line) {
+        String path = uri.getSchemeSpecificPart();
+        if ("file".equals(uri.getScheme())) {
+            path = Paths.get("").toAbsolutePath().relativize(Paths.get(uri)).toString().replace('\\', '/');
+        }
+        return path + ":" + line;
+    }
+
+    /**
+     * Estimates the duration of a pickle.
+     *
+     * @param key The history key of the pickle.
+     * @return The estimated duration in milliseconds.
+     */
+    public long estimate(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return Math.round(entry.meanMillis);
+        }
+        String feature = key.substring(0, key.lastIndexOf(':') + 1);
+        List<Double> sameFeature = new ArrayList<>();
+        List<Double> all = new ArrayList<>();
+        for (Map.Entry<String, Entry> known : entries.entrySet()) {
+            all.add(known.getValue().meanMillis);
+            if (known.getKey().startsWith(feature)) {
+                sameFeature.add(known.getValue().meanMillis);
+            }
+        }
+        if (!sameFeature.isEmpty()) {
+            return median(sameFeature);
+        }
+        if (!all.isEmpty()) {
+            return median(all);
+        }
+        return ConfigReader.getInt("schedule_default_estimate_ms", 30000);
+    }
+
+    /**
+     * Checks whether a pickle has recorded durations.
+     *
+     * @param key The history key of the pickle.
+     * @return True if the pickle ran before.
+     */
+    public boolean isKnown(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Adds the duration of a finished pickle to its mean.
+     *
+     * @param key The history key of the pickle.
+     * @param millis The duration of this run in milliseconds.
+     */
+    public void record(String key, long millis) {
+        entries.compute(key, (k, entry) -> {
+            if (entry == null) {
+                entry = new Entry();
+                entry.meanMillis = millis;
+            } else {
+                entry.meanMillis = entry.meanMillis * (1 - WEIGHT) + millis * WEIGHT;
+            }
+            entry.runs++;
+            return entry;
+        });
+        recorded.add(key);
+    }
+
+    /**
+     * Adds the entries of another history file, e.g. the durations recorded by a shard.
+     * Entries from the file replace the entries of the same pickles.
+     *
+     * @param file The history file to merge.
+     */
+    public void merge(Path file) {
+        entries.putAll(read(file));
+    }
+
+    /**
+     * Writes the history file. Pickles recorded by other runs since it was loaded are kept.
+     */
+    public void save() {
+        save(Paths.get(Constants.durationHistoryFile));
+    }
+
+    /**
+     * Writes the history to the given file, keeping pickles recorded there by other runs since it was loaded.
+     *
+     * @param file The file to write.
+     */
+    public synchronized void save(Path file) {
+        Map<String, Entry> merged = new TreeMap<>(read(file));
+        merged.putAll(entries);
+        write(file, merged);
+    }
+
+    private static void write(Path file, Map<String, Entry> history) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "durations", ".tmp");
+            Files.writeString(temp, gson.toJson(history), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            System.out.println("Unable to write duration history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes only the pickles recorded since the history was loaded, e.g. the output of one shard,
+     * so merging several such files never replaces a newer duration with a stale one.
+     *
+     * @param file The file to write.
+     */
+    public synchronized void saveRecorded(Path file) {
+        Map<String, Entry> own = new TreeMap<>();
+        for (String key : recorded) {
+            own.put(key, entries.get(key));
+        }
+        write(file, own);
+    }
+
+    private static long median(List<Double> values) {
+        Collections.sort(values);
+        return Math.round(values.get(values.size() / 2));
+    }
+
+    private static Map<String, Entry> read(Path file) {
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, Entry> stored = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), HISTORY_TYPE);
+            return stored == null ? Collections.emptyMap() : stored;
+        } catch (Exception e) {
+            System.out.println("Unable to read duration history " + file + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
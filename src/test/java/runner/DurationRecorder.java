@@ -0,0 +1,83 @@
+package runner;
+
+import com.aventstack.extentreports.service.ExtentService;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * DurationRecorder is a Cucumber plugin that adds the duration of every passed or failed pickle to the
+ * DurationHistory and saves it at the end of the run; a shard saves its durations next to its other output instead,
+ * for the ShardMerger to add to the history. It then compares the makespan predicted by the
+ * LptSchedule with the actual wall time of the run and adds both to the console output and the Extent report.
+ *
+ * @see DurationHistory
+ * @see LptSchedule
+ */
+public class DurationRecorder implements ConcurrentEventListener {
+
+    private final DurationHistory history;
+    private final LptSchedule schedule;
+    private final Path shardFile;
+    private volatile Instant started;
+
+    /**
+     * Creates a recorder for a run.
+     *
+     * @param history The history to add durations to.
+     * @param schedule The schedule used for the run, or null if pickles were not scheduled by duration.
+     * @param shardFile The file a shard saves its own durations to, or null to update the duration history directly.
+     */
+    public DurationRecorder(DurationHistory history, LptSchedule schedule, Path shardFile) {
+        this.history = history;
+        this.schedule = schedule;
+        this.shardFile = shardFile;
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> started = event.getInstant());
+        publisher.registerHandlerFor(TestCaseFinished.class, this::record);
+        publisher.registerHandlerFor(TestRunFinished.class, this::finish);
+    }
+
+    private void record(TestCaseFinished event) {
+        Status status = event.getResult().getStatus();
+        if (status == Status.PASSED || status == Status.FAILED) {
+            history.record(DurationHistory.keyOf(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine()),
+                    event.getResult().getDuration().toMillis());
+        }
+    }
+
+    private void finish(TestRunFinished event) {
+        if (shardFile == null) {
+            history.save();
+        } else {
+            history.saveRecorded(shardFile);
+        }
+        if (schedule == null || started == null) {
+            return;
+        }
+        String predicted = format(schedule.getPredictedMakespanMillis());
+        String actual = format(Duration.between(started, event.getInstant()).toMillis());
+        System.out.println("Makespan: predicted " + predicted + ", actual " + actual);
+        try {
+            ExtentService.getInstance().setSystemInfo("Predicted makespan", predicted);
+            ExtentService.getInstance().setSystemInfo("Actual makespan", actual);
+            ExtentService.flush();
+        } catch (Exception e) {
+            System.out.println("Unable to add makespan to the Extent report: " + e.getMessage());
+        }
+    }
+
+    private static String format(long millis) {
+        return String.format("%.1f s", millis / 1000.0);
+    }
+}
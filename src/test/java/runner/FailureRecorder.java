@@ -0,0 +1,161 @@
+package runner;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import utilities.Constants;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FailureRecorder is a Cucumber plugin that keeps a compact record of failed pickles: their feature path and line
+ * (e.g. src/test/resources/features/BooksAPI.feature:12) and a failure signature made of the failed step and the
+ * exception type and first message line, with numbers masked so the same failure gives the same signature.
+ * A pickle is removed from the record as soon as it passes, so the record only ever lists current failures.
+ * The rerun-failed mode of the CucumberLauncher runs exactly the pickles in this record.
+ *
+ * @see CucumberLauncher#rerunFailed(int)
+ * @see Constants#failureRecordFile
+ */
+public class FailureRecorder implements ConcurrentEventListener {
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final Type RECORD_TYPE = new TypeToken<Map<String, Failure>>() { }.getType();
+
+    /**
+     * Failed step of every running test case that has failed so far.
+     */
+    private final Map<UUID, String> failedSteps = new ConcurrentHashMap<>();
+
+    private final Map<String, Failure> failed = new ConcurrentHashMap<>();
+    private final Set<String> passed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Recorded failure of a pickle.
+     */
+    public static class Failure {
+        String scenario;
+        String signature;
+        long lastFailedAt;
+        int consecutiveFailures;
+
+        /**
+         * Retrieves the failure signature: the failed step and the exception type and first message line.
+         *
+         * @return The failure signature.
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        /**
+         * Retrieves the name of the failed scenario.
+         *
+         * @return The scenario name.
+         */
+        public String getScenario() {
+            return scenario;
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::caseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> save());
+    }
+
+    /**
+     * Loads the pickles that failed in earlier runs and have not passed since.
+     *
+     * @return The recorded failures keyed by feature path and line, in path order.
+     */
+    public static Map<String, Failure> load() {
+        Path file = Paths.get(Constants.failureRecordFile);
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        try {
+            Map<String, Failure> record = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), RECORD_TYPE);
+            return record == null ? new TreeMap<>() : new TreeMap<>(record);
+        } catch (Exception e) {
+            System.out.println("Unable to read failure record " + file + ": " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (event.getResult().getStatus() == Status.FAILED) {
+            String step = event.getTestStep() instanceof PickleStepTestStep
+                    ? ((PickleStepTestStep) event.getTestStep()).getStep().getText()
+                    : "hook " + event.getTestStep().getCodeLocation();
+            failedSteps.putIfAbsent(event.getTestCase().getId(), step);
+        }
+    }
+
+    private void caseFinished(TestCaseFinished event) {
+        String key = DurationHistory.keyOf(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+        String step = failedSteps.remove(event.getTestCase().getId());
+        Status status = event.getResult().getStatus();
+        if (status == Status.PASSED) {
+            passed.add(key);
+            failed.remove(key);
+        } else if (status == Status.FAILED) {
+            Failure failure = new Failure();
+            failure.scenario = event.getTestCase().getName();
+            failure.signature = signatureOf(step, event.getResult().getError());
+            failure.lastFailedAt = event.getInstant().toEpochMilli();
+            passed.remove(key);
+            failed.put(key, failure);
+        }
+    }
+
+    /**
+     * Updates the failure record file: pickles that passed are removed and pickles that failed are added or updated.
+     */
+    private synchronized void save() {
+        Map<String, Failure> record = load();
+        passed.forEach(record::remove);
+        failed.forEach((key, failure) -> {
+            Failure previous = record.get(key);
+            failure.consecutiveFailures = previous == null ? 1 : previous.consecutiveFailures + 1;
+            record.put(key, failure);
+        });
+        Path file = Paths.get(Constants.failureRecordFile);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "failures", ".tmp");
+            Files.writeString(temp, gson.toJson(record), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            System.out.println("Unable to write failure record " + file + ": " + e.getMessage());
+        }
+    }
+
+    static String signatureOf(String step, Throwable error) {
+        String cause = "unknown error";
+        if (error != null) {
+            String message = String.valueOf(error.getMessage()).split("\\R", 2)[0].replaceAll("\\d+", "#");
+            cause = error.getClass().getName() + ": " + message;
+        }
+        return (step == null ? "" : step + " -> ") + cause;
+    }
+}
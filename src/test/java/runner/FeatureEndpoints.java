@@ -0,0 +1,93 @@
+package runner;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleTable;
+import io.cucumber.messages.types.PickleTableRow;
+import io.cucumber.messages.types.PickleTag;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * FeatureEndpoints reads the GET URLs requested by the API scenarios of the feature files, so load tests use the
+ * endpoints already described in Gherkin. Scenario outlines are expanded into one URL per Examples row, and the
+ * ISBN tables of concurrent requests into one URL per row. Steps are recognised by the texts of
+ * BooksAPIStepDefinitions.
+ *
+ * @see LoadRunner
+ * @see stepDefinitions.BooksAPIStepDefinitions
+ */
+public class FeatureEndpoints {
+
+    private static final Pattern SINGLE_GET = Pattern.compile("^User send a GET request to the API endpoint ((?:\"[^\"]*\")+)$");
+    private static final Pattern FAN_OUT_GET = Pattern.compile("^User sends concurrent GET requests to the API endpoint \"([^\"]*)\" for the ISBNs$");
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]*)\"");
+
+    /**
+     * Collects the GET URLs of the scenarios matching a tag expression.
+     *
+     * @param features A feature file or a folder of feature files.
+     * @param tags The tag expression, or an empty string for every scenario.
+     * @return The URLs in the order they appear in the features.
+     * @throws IOException If a feature file cannot be read.
+     */
+    public static List<String> of(String features, String tags) throws IOException {
+        Expression expression = tags.isEmpty() ? null : TagExpressionParser.parse(tags);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(Paths.get(features))) {
+            files = paths.filter(path -> path.toString().endsWith(".feature")).sorted().collect(Collectors.toList());
+        }
+        GherkinParser parser = GherkinParser.builder().includeSource(false).includeGherkinDocument(false).build();
+        List<String> urls = new ArrayList<>();
+        for (Path file : files) {
+            List<Pickle> pickles;
+            try (Stream<Envelope> envelopes = parser.parse(file)) {
+                pickles = envelopes.map(Envelope::getPickle).flatMap(Optional::stream).collect(Collectors.toList());
+            }
+            for (Pickle pickle : pickles) {
+                List<String> pickleTags = pickle.getTags().stream().map(PickleTag::getName).collect(Collectors.toList());
+                if (expression == null || expression.evaluate(pickleTags)) {
+                    pickle.getSteps().forEach(step -> urls.addAll(urlsOf(step)));
+                }
+            }
+        }
+        return urls;
+    }
+
+    private static List<String> urlsOf(PickleStep step) {
+        List<String> urls = new ArrayList<>();
+        Matcher single = SINGLE_GET.matcher(step.getText());
+        if (single.matches()) {
+            StringBuilder url = new StringBuilder();
+            Matcher quoted = QUOTED.matcher(single.group(1));
+            while (quoted.find()) {
+                url.append(quoted.group(1));
+            }
+            urls.add(url.toString());
+        }
+        Matcher fanOut = FAN_OUT_GET.matcher(step.getText());
+        if (fanOut.matches() && step.getArgument().isPresent()) {
+            PickleTable table = step.getArgument().get().getDataTable().orElse(null);
+            if (table != null) {
+                for (PickleTableRow row : table.getRows()) {
+                    urls.add(fanOut.group(1) + row.getCells().get(0).getValue());
+                }
+            }
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,131 @@
+package runner;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import jdk.jfr.Recording;
+import utilities.ConfigReader;
+import utilities.Constants;
+import utilities.FlightEvents;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * FlightRecording is a Cucumber plugin that emits a JFR event for every scenario and step on the thread that runs it.
+ * With jfr_recording=true it also records the run to Reports/jfr/run-&lt;time&gt;.jfr, with CPU sampling, allocation
+ * sampling and blocking events enabled, and writes the FlightSummary of the recording next to it.
+ * Without it the events are only recorded when the JVM already runs a recording, e.g. -XX:StartFlightRecording.
+ *
+ * @see FlightEvents
+ * @see FlightSummary
+ */
+public class FlightRecording implements ConcurrentEventListener {
+
+    public static final String FOLDER = Constants.reportsPath + "jfr";
+
+    private final ThreadLocal<FlightEvents.ScenarioEvent> scenario = new ThreadLocal<>();
+    private final ThreadLocal<FlightEvents.StepEvent> step = new ThreadLocal<>();
+    private Recording recording;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> start());
+        publisher.registerHandlerFor(TestCaseStarted.class, this::caseStarted);
+        publisher.registerHandlerFor(TestStepStarted.class, this::stepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::caseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> finish());
+    }
+
+    private synchronized void start() {
+        if (!ConfigReader.getBoolean("jfr_recording", false) || recording != null) {
+            return;
+        }
+        recording = new Recording();
+        recording.setName("bdd-run");
+        recording.enable(FlightEvents.ScenarioEvent.class);
+        recording.enable(FlightEvents.StepEvent.class);
+        recording.enable(FlightEvents.UtilityCallEvent.class);
+        recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(FlightSummary.SAMPLE_PERIOD_MS));
+        recording.enable("jdk.ObjectAllocationSample");
+        recording.enable("jdk.GarbageCollection");
+        for (String blocking : FlightSummary.BLOCKING_EVENTS) {
+            recording.enable(blocking).withThreshold(Duration.ofMillis(ConfigReader.getInt("jfr_blocking_threshold_ms", 5)));
+        }
+        for (String io : FlightSummary.IO_EVENTS) {
+            recording.enable(io).withThreshold(Duration.ofMillis(ConfigReader.getInt("jfr_io_threshold_ms", 5)));
+        }
+        recording.start();
+    }
+
+    private void caseStarted(TestCaseStarted event) {
+        FlightEvents.ScenarioEvent scenarioEvent = new FlightEvents.ScenarioEvent();
+        if (scenarioEvent.isEnabled()) {
+            scenarioEvent.scenario = event.getTestCase().getName();
+            scenarioEvent.location = DurationHistory.keyOf(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+            scenarioEvent.begin();
+            scenario.set(scenarioEvent);
+        }
+    }
+
+    private void stepStarted(TestStepStarted event) {
+        FlightEvents.StepEvent stepEvent = new FlightEvents.StepEvent();
+        if (stepEvent.isEnabled()) {
+            stepEvent.scenario = event.getTestCase().getName();
+            stepEvent.step = event.getTestStep() instanceof PickleStepTestStep
+                    ? ((PickleStepTestStep) event.getTestStep()).getStep().getText()
+                    : ((HookTestStep) event.getTestStep()).getHookType() + " " + event.getTestStep().getCodeLocation();
+            stepEvent.begin();
+            step.set(stepEvent);
+        }
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        FlightEvents.StepEvent stepEvent = step.get();
+        if (stepEvent != null) {
+            step.remove();
+            stepEvent.status = event.getResult().getStatus().name();
+            stepEvent.commit();
+        }
+    }
+
+    private void caseFinished(TestCaseFinished event) {
+        FlightEvents.ScenarioEvent scenarioEvent = scenario.get();
+        if (scenarioEvent != null) {
+            scenario.remove();
+            scenarioEvent.status = event.getResult().getStatus().name();
+            scenarioEvent.commit();
+        }
+    }
+
+    private synchronized void finish() {
+        if (recording == null) {
+            return;
+        }
+        Path file = Paths.get(FOLDER, "run-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+        try {
+            recording.stop();
+            Files.createDirectories(file.getParent());
+            recording.dump(file);
+            System.out.println("Flight recording written to " + file);
+            FlightSummary.write(file, Paths.get(FOLDER, FlightSummary.SUMMARY_FILE));
+        } catch (Exception e) {
+            System.out.println("Unable to write flight recording " + file + ": " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
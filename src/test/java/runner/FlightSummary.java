@@ -0,0 +1,200 @@
+package runner;
+
+import com.google.gson.GsonBuilder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * FlightSummary attributes the resources recorded in a JFR file to the scenarios that used them. A sample or event
+ * belongs to a scenario when it happened on the thread of the scenario while the scenario ran (bdd.Scenario events):
+ * CPU time is estimated from execution samples, allocation from allocation samples, blocked time from monitor and
+ * park events, I/O time from socket and file events, and GC pauses are added to every scenario running at the time.
+ * Time spent in utility calls (bdd.UtilityCall events) is listed per utility; calls made for a scenario on another
+ * thread, e.g. the requests of APIUtil.getResponses, are attributed to it by the scenario name they carry.
+ * <p>
+ * Run main with the path of a recording to summarise a recording made with -XX:StartFlightRecording.
+ *
+ * @see FlightRecording
+ * @see utilities.FlightEvents
+ */
+public class FlightSummary {
+
+    public static final String SUMMARY_FILE = "summary.json";
+    public static final long SAMPLE_PERIOD_MS = 10;
+    public static final Set<String> BLOCKING_EVENTS = Set.of("jdk.JavaMonitorEnter", "jdk.JavaMonitorWait", "jdk.ThreadPark");
+    public static final Set<String> IO_EVENTS = Set.of("jdk.SocketRead", "jdk.SocketWrite", "jdk.FileRead", "jdk.FileWrite");
+
+    /**
+     * Resources used by one run of a scenario.
+     */
+    static class ScenarioUsage {
+        String scenario;
+        String location;
+        String status;
+        double wallMs;
+        double cpuMs;
+        long allocatedBytes;
+        double blockedMs;
+        double ioMs;
+        double gcPauseMs;
+        Map<String, Double> utilityMs = new TreeMap<>();
+        transient long threadId;
+        transient Instant start;
+        transient Instant end;
+    }
+
+    /**
+     * Summarises a recording and writes the summary as JSON.
+     *
+     * @param recording The JFR file.
+     * @param summary The JSON file to write.
+     * @return The resource use of every scenario, highest CPU time first.
+     * @throws IOException If the recording cannot be read or the summary cannot be written.
+     */
+    public static List<ScenarioUsage> write(Path recording, Path summary) throws IOException {
+        List<ScenarioUsage> usages = summarise(recording);
+        Files.createDirectories(summary.toAbsolutePath().getParent());
+        Files.writeString(summary, new GsonBuilder().setPrettyPrinting().create().toJson(usages), StandardCharsets.UTF_8);
+        System.out.println(String.format("%10s %10s %12s %10s %10s %10s  %s", "Wall ms", "CPU ms", "Alloc MB", "Blocked ms", "I/O ms", "GC ms", "Scenario"));
+        for (ScenarioUsage usage : usages) {
+            System.out.println(String.format("%10.0f %10.0f %12.1f %10.0f %10.0f %10.0f  %s %s", usage.wallMs, usage.cpuMs,
+                    usage.allocatedBytes / (1024.0 * 1024.0), usage.blockedMs, usage.ioMs, usage.gcPauseMs,
+                    usage.location, usage.scenario));
+        }
+        return usages;
+    }
+
+    /**
+     * Attributes the samples and events of a recording to the scenarios.
+     *
+     * @param recording The JFR file.
+     * @return The resource use of every scenario, highest CPU time first.
+     * @throws IOException If the recording cannot be read.
+     */
+    public static List<ScenarioUsage> summarise(Path recording) throws IOException {
+        List<ScenarioUsage> usages = new ArrayList<>();
+        Map<Long, List<ScenarioUsage>> byThread = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if ("bdd.Scenario".equals(event.getEventType().getName()) && event.getThread() != null) {
+                    ScenarioUsage usage = new ScenarioUsage();
+                    usage.scenario = event.getString("scenario");
+                    usage.location = event.getString("location");
+                    usage.status = event.getString("status");
+                    usage.wallMs = event.getDuration().toNanos() / 1e6;
+                    usage.threadId = event.getThread().getJavaThreadId();
+                    usage.start = event.getStartTime();
+                    usage.end = event.getEndTime();
+                    usages.add(usage);
+                    byThread.computeIfAbsent(usage.threadId, id -> new ArrayList<>()).add(usage);
+                }
+            }
+        }
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                attribute(file.readEvent(), usages, byThread);
+            }
+        }
+        usages.sort(Comparator.comparingDouble((ScenarioUsage usage) -> usage.cpuMs).reversed());
+        return usages;
+    }
+
+    private static void attribute(RecordedEvent event, List<ScenarioUsage> usages, Map<Long, List<ScenarioUsage>> byThread) {
+        String type = event.getEventType().getName();
+        if ("jdk.GarbageCollection".equals(type)) {
+            double pauseMs = event.getDuration("sumOfPauses").toNanos() / 1e6;
+            for (ScenarioUsage usage : usages) {
+                if (!event.getStartTime().isBefore(usage.start) && !event.getStartTime().isAfter(usage.end)) {
+                    usage.gcPauseMs += pauseMs;
+                }
+            }
+            return;
+        }
+        if ("jdk.ExecutionSample".equals(type)) {
+            ScenarioUsage usage = find(byThread, event.getThread("sampledThread"), event.getStartTime());
+            if (usage != null) {
+                usage.cpuMs += SAMPLE_PERIOD_MS;
+            }
+            return;
+        }
+        ScenarioUsage usage = find(byThread, event.getThread(), event.getStartTime());
+        if (usage == null && "bdd.UtilityCall".equals(type)) {
+            usage = find(usages, event.getString("scenario"), event.getStartTime());
+        }
+        if (usage == null) {
+            return;
+        }
+        double durationMs = event.getDuration().toNanos() / 1e6;
+        if ("jdk.ObjectAllocationSample".equals(type)) {
+            usage.allocatedBytes += event.getLong("weight");
+        } else if (BLOCKING_EVENTS.contains(type)) {
+            usage.blockedMs += durationMs;
+        } else if (IO_EVENTS.contains(type)) {
+            usage.ioMs += durationMs;
+        } else if ("bdd.UtilityCall".equals(type)) {
+            usage.utilityMs.merge(event.getString("utility") + " " + event.getString("operation"), durationMs, Double::sum);
+        }
+    }
+
+    /**
+     * Finds the scenario that ran on a thread at a given time.
+     */
+    private static ScenarioUsage find(Map<Long, List<ScenarioUsage>> byThread, RecordedThread thread, Instant time) {
+        if (thread == null) {
+            return null;
+        }
+        List<ScenarioUsage> candidates = byThread.get(thread.getJavaThreadId());
+        if (candidates == null) {
+            return null;
+        }
+        for (ScenarioUsage usage : candidates) {
+            if (!time.isBefore(usage.start) && !time.isAfter(usage.end)) {
+                return usage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a run of the named scenario at a given time, for utility calls made for it on another thread.
+     */
+    private static ScenarioUsage find(List<ScenarioUsage> usages, String scenario, Instant time) {
+        if (scenario == null) {
+            return null;
+        }
+        for (ScenarioUsage usage : usages) {
+            if (scenario.equals(usage.scenario) && !time.isBefore(usage.start) && !time.isAfter(usage.end)) {
+                return usage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Summarises a recording from the command line into summary.json next to it.
+     *
+     * @param args The path of the JFR file.
+     * @throws IOException If the recording cannot be read or the summary cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path recording = Paths.get(args[0]);
+        Path parent = recording.toAbsolutePath().getParent();
+        write(recording, parent.resolve(SUMMARY_FILE));
+    }
+}
@@ -0,0 +1,58 @@
+package runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import utilities.ApiStubServer;
+import utilities.BaseClass;
+import utilities.ConfigReader;
+import utilities.Constants;
+import utilities.LoadGenerator;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * LoadRunner puts sustained load on the GET endpoints of the scenarios selected by load_tags in load_features.
+ * With load_rate set it sends that many requests per second (open model), otherwise it runs load_concurrency
+ * workers back to back (closed model), for load_warmup_seconds unmeasured and load_duration_seconds measured.
+ * With load_stub=true the requests go to the local ApiStubServer instead of the real service.
+ * Latency percentiles and error rates per endpoint are printed and written to Reports/load-report.html and .json.
+ * The run fails when the error rate exceeds load_max_error_percent.
+ * It is not picked up by the default build; run it with the load profile:
+ * mvn test -Pload -Dload_rate=50 -Dload_duration_seconds=300
+ *
+ * @see LoadGenerator
+ * @see FeatureEndpoints
+ */
+public class LoadRunner extends BaseClass {
+
+    @Test
+    public void putLoadOnApiEndpoints() throws IOException {
+        List<String> urls = FeatureEndpoints.of(ConfigReader.getProperty("load_features", CucumberLauncher.FEATURES),
+                ConfigReader.getProperty("load_tags", "@smoke_api"));
+        Assert.assertFalse("No GET endpoints found in the selected scenarios", urls.isEmpty());
+        Duration warmup = Duration.ofSeconds(ConfigReader.getInt("load_warmup_seconds", 5));
+        Duration duration = Duration.ofSeconds(ConfigReader.getInt("load_duration_seconds", 60));
+        double rate = ConfigReader.getDouble("load_rate", 0);
+        boolean stub = ConfigReader.getBoolean("load_stub", false);
+        if (stub) {
+            ApiStubServer.start();
+        }
+        LoadGenerator.Result result;
+        try {
+            result = rate > 0
+                    ? LoadGenerator.runAtRate(urls, rate, ConfigReader.getInt("load_max_in_flight", 200), warmup, duration)
+                    : LoadGenerator.runWithConcurrency(urls, ConfigReader.getInt("load_concurrency", 8), warmup, duration);
+        } finally {
+            if (stub) {
+                ApiStubServer.stop();
+            }
+        }
+        LoadGenerator.writeReport(result, Paths.get(Constants.reportsPath));
+        double errorPercent = result.getRequests() == 0 ? 0 : result.getErrors() * 100.0 / result.getRequests();
+        Assert.assertTrue("Error rate " + errorPercent + "% exceeds load_max_error_percent",
+                errorPercent <= ConfigReader.getDouble("load_max_error_percent", 1.0));
+    }
+}
@@ -0,0 +1,97 @@
+package runner;
+
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.order.PickleOrder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * LptSchedule orders pickles longest-processing-time-first using their estimated durations.
+ * Cucumber hands the next pickle to whichever worker thread becomes free, so running the longest pickles
+ * first keeps the workers' finishing times close together. The makespan this ordering is expected to take
+ * on the configured number of workers is calculated while ordering, so it can be compared with the actual run.
+ *
+ * @see DurationHistory
+ * @see PickleOrder
+ */
+public class LptSchedule implements PickleOrder {
+
+    private final DurationHistory history;
+    private final int workers;
+    private volatile long predictedMakespanMillis;
+
+    /**
+     * Creates a schedule for the given number of workers.
+     *
+     * @param history The durations of earlier runs.
+     * @param workers The number of scenarios run at the same time.
+     */
+    public LptSchedule(DurationHistory history, int workers) {
+        this.history = history;
+        this.workers = Math.max(1, workers);
+    }
+
+    @Override
+    public List<Pickle> orderPickles(List<Pickle> pickles) {
+        List<Pickle> ordered = new ArrayList<>(pickles);
+        ordered.sort(Comparator.comparingLong(this::estimate).reversed()
+                .thenComparing(pickle -> DurationHistory.keyOf(pickle.getUri(), pickle.getLocation().getLine())));
+        long makespan = 0;
+        for (List<Pickle> worker : assign(ordered, this::estimate, workers)) {
+            makespan = Math.max(makespan, worker.stream().mapToLong(this::estimate).sum());
+        }
+        predictedMakespanMillis = makespan;
+        return ordered;
+    }
+
+    /**
+     * Retrieves the makespan predicted for the last ordered pickles.
+     *
+     * @return The predicted makespan in milliseconds, or 0 if no pickles were ordered yet.
+     */
+    public long getPredictedMakespanMillis() {
+        return predictedMakespanMillis;
+    }
+
+    /**
+     * Estimates the duration of a pickle from the history.
+     *
+     * @param pickle The pickle to estimate.
+     * @return The estimated duration in milliseconds.
+     */
+    public long estimate(Pickle pickle) {
+        return history.estimate(DurationHistory.keyOf(pickle.getUri(), pickle.getLocation().getLine()));
+    }
+
+    /**
+     * Assigns items to workers longest first, each to the worker with the least work so far.
+     *
+     * @param items The items to assign.
+     * @param estimate The estimated duration of an item.
+     * @param workers The number of workers.
+     * @param <T> The item type.
+     * @return The items of each worker, in the order they were assigned.
+     */
+    public static <T> List<List<T>> assign(List<T> items, ToLongFunction<T> estimate, int workers) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(estimate).reversed());
+        List<List<T>> assigned = new ArrayList<>();
+        long[] loads = new long[Math.max(1, workers)];
+        PriorityQueue<Integer> leastLoaded = new PriorityQueue<>(Comparator.<Integer>comparingLong(i -> loads[i]).thenComparingInt(i -> i));
+        for (int i = 0; i < loads.length; i++) {
+            assigned.add(new ArrayList<>());
+            leastLoaded.add(i);
+        }
+        for (T item : sorted) {
+            int worker = leastLoaded.poll();
+            assigned.get(worker).add(item);
+            loads[worker] += estimate.applyAsLong(item);
+            leastLoaded.add(worker);
+        }
+        return assigned;
+    }
+}
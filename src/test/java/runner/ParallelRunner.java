@@ -0,0 +1,21 @@
+package runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import utilities.BaseClass;
+
+/**
+ * ParallelRunner runs the scenarios selected by parallel_tags on parallel_threads threads through the CucumberLauncher.
+ * It is not picked up by the default build; run it with the parallel profile:
+ * mvn test -Pparallel -Dparallel_tags="@smoke_api" -Dparallel_threads=8
+ * To run only the scenarios that failed in earlier runs: mvn test -Pparallel -Drerun_failed=true
+ *
+ * @see CucumberLauncher
+ */
+public class ParallelRunner extends BaseClass {
+
+    @Test
+    public void runScenariosInParallel() {
+        Assert.assertEquals("Cucumber exit status", 0, CucumberLauncher.run());
+    }
+}
@@ -0,0 +1,265 @@
+package runner;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import utilities.ConfigReader;
+import utilities.Constants;
+import utilities.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PerfGate is a Cucumber plugin that collects p50 and p95 durations of every scenario (keyed by feature path and line)
+ * and every step (keyed by its text) over one or more runs, to capture them as a baseline or compare them against it.
+ * A scenario or step regresses when its p50 or p95 is more than perf_threshold_percent slower than the baseline and
+ * at least perf_min_delta_ms slower, so a few milliseconds of noise on fast steps are not reported.
+ * Only passed scenarios and steps are measured.
+ *
+ * @see PerfRunner
+ * @see Constants#perfBaselineFile
+ */
+public class PerfGate implements ConcurrentEventListener {
+
+    public static final String DIFF_FILE = "perf-diff.html";
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Map<String, LatencyHistogram> scenarios = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> steps = new ConcurrentHashMap<>();
+    private final Map<String, String> scenarioNames = new ConcurrentHashMap<>();
+    private volatile boolean recording = true;
+
+    /**
+     * Stored percentiles of a scenario or step.
+     */
+    static class Percentiles {
+        String name;
+        double p50Ms;
+        double p95Ms;
+        long samples;
+    }
+
+    /**
+     * Stored baseline of every scenario and step.
+     */
+    static class Baseline {
+        Map<String, Percentiles> scenarios = new TreeMap<>();
+        Map<String, Percentiles> steps = new TreeMap<>();
+    }
+
+    /**
+     * A row of the diff table.
+     */
+    static class Row {
+        final String kind;
+        final String name;
+        final Percentiles baseline;
+        final Percentiles current;
+        final String verdict;
+
+        Row(String kind, String name, Percentiles baseline, Percentiles current, String verdict) {
+            this.kind = kind;
+            this.name = name;
+            this.baseline = baseline;
+            this.current = current;
+            this.verdict = verdict;
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::caseFinished);
+    }
+
+    /**
+     * Turns measuring on or off, e.g. off for warm-up runs.
+     *
+     * @param recording True to measure the following runs.
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (recording && event.getResult().getStatus() == Status.PASSED && event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            steps.computeIfAbsent(step.getStep().getKeyword() + step.getStep().getText(), key -> new LatencyHistogram())
+                    .record(event.getResult().getDuration().toNanos() / 1000);
+        }
+    }
+
+    private void caseFinished(TestCaseFinished event) {
+        if (recording && event.getResult().getStatus() == Status.PASSED) {
+            String key = DurationHistory.keyOf(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+            scenarioNames.put(key, event.getTestCase().getName());
+            scenarios.computeIfAbsent(key, k -> new LatencyHistogram()).record(event.getResult().getDuration().toNanos() / 1000);
+        }
+    }
+
+    /**
+     * Summarises the measured runs.
+     *
+     * @return The percentiles of every measured scenario and step.
+     */
+    Baseline measured() {
+        Baseline measured = new Baseline();
+        scenarios.forEach((key, histogram) -> measured.scenarios.put(key, percentiles(scenarioNames.get(key), histogram)));
+        steps.forEach((key, histogram) -> measured.steps.put(key, percentiles(key, histogram)));
+        return measured;
+    }
+
+    /**
+     * Writes the measured percentiles as the new baseline. The baseline file is meant to be committed, so every
+     * checkout compares against the same numbers.
+     *
+     * @return The number of scenarios in the baseline.
+     * @throws IOException If the baseline cannot be written.
+     */
+    public int saveBaseline() throws IOException {
+        Baseline measured = measured();
+        Path file = Paths.get(Constants.perfBaselineFile);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, gson.toJson(measured), StandardCharsets.UTF_8);
+        return measured.scenarios.size();
+    }
+
+    /**
+     * Tells whether a baseline has been captured.
+     *
+     * @return True if the baseline file exists.
+     */
+    public boolean hasBaseline() {
+        return Files.exists(Paths.get(Constants.perfBaselineFile));
+    }
+
+    /**
+     * Compares the measured percentiles with the baseline, prints the diff table and writes it to Reports/perf-diff.html.
+     *
+     * @return The names of the regressed scenarios and steps, empty if nothing regressed.
+     * @throws IOException If the baseline cannot be read.
+     */
+    public List<String> compare() throws IOException {
+        Path file = Paths.get(Constants.perfBaselineFile);
+        if (!Files.exists(file)) {
+            throw new IOException("No performance baseline in " + file + "; capture one with -Dperf_capture_baseline=true and commit it");
+        }
+        Baseline baseline = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), Baseline.class);
+        Baseline current = measured();
+        List<Row> rows = new ArrayList<>();
+        diff("scenario", baseline.scenarios, current.scenarios, rows);
+        diff("step", baseline.steps, current.steps, rows);
+        List<String> regressed = new ArrayList<>();
+        for (Row row : rows) {
+            if ("REGRESSED".equals(row.verdict)) {
+                regressed.add(row.kind + " " + row.name);
+            }
+        }
+        System.out.println(toText(rows));
+        Path diffFile = Paths.get(Constants.reportsPath, DIFF_FILE);
+        Files.createDirectories(diffFile.getParent());
+        Files.writeString(diffFile, toHtml(rows), StandardCharsets.UTF_8);
+        return regressed;
+    }
+
+    private static void diff(String kind, Map<String, Percentiles> baseline, Map<String, Percentiles> current, List<Row> rows) {
+        double threshold = ConfigReader.getDouble("perf_threshold_percent", 30) / 100;
+        long minDelta = ConfigReader.getInt("perf_min_delta_ms", 20);
+        for (String key : union(baseline, current)) {
+            Percentiles before = baseline.get(key);
+            Percentiles now = current.get(key);
+            String name = now != null ? now.name : before.name;
+            String verdict;
+            if (before == null) {
+                verdict = "NEW";
+            } else if (now == null) {
+                verdict = "NOT RUN";
+            } else if (regressed(before.p50Ms, now.p50Ms, threshold, minDelta) || regressed(before.p95Ms, now.p95Ms, threshold, minDelta)) {
+                verdict = "REGRESSED";
+            } else {
+                verdict = "OK";
+            }
+            rows.add(new Row(kind, name, before, now, verdict));
+        }
+    }
+
+    private static TreeSet<String> union(Map<String, Percentiles> a, Map<String, Percentiles> b) {
+        TreeSet<String> keys = new TreeSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        return keys;
+    }
+
+    private static boolean regressed(double before, double now, double threshold, long minDelta) {
+        return now > before * (1 + threshold) && now - before >= minDelta;
+    }
+
+    private static Percentiles percentiles(String name, LatencyHistogram histogram) {
+        Percentiles percentiles = new Percentiles();
+        percentiles.name = name;
+        percentiles.p50Ms = histogram.getPercentile(50) / 1000.0;
+        percentiles.p95Ms = histogram.getPercentile(95) / 1000.0;
+        percentiles.samples = histogram.getCount();
+        return percentiles;
+    }
+
+    private static String toText(List<Row> rows) {
+        StringBuilder text = new StringBuilder(String.format("%-10s %-10s %10s %10s %8s %10s %10s %8s  %s%n",
+                "Verdict", "Kind", "Base p50", "p50", "Change", "Base p95", "p95", "Change", "Name"));
+        for (Row row : rows) {
+            text.append(String.format("%-10s %-10s %10s %10s %8s %10s %10s %8s  %s%n", row.verdict, row.kind,
+                    ms(row.baseline, true), ms(row.current, true), change(row, true),
+                    ms(row.baseline, false), ms(row.current, false), change(row, false), row.name));
+        }
+        return text.toString();
+    }
+
+    private static String toHtml(List<Row> rows) {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Performance diff</title>"
+                + "<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border-bottom:1px solid #ddd;"
+                + "padding:4px 8px;text-align:left}.REGRESSED{background:#fde2e1}</style></head><body><h1>Performance diff</h1>"
+                + "<table><tr><th>Verdict</th><th>Kind</th><th>Name</th><th>Base p50</th><th>p50</th><th>Change</th>"
+                + "<th>Base p95</th><th>p95</th><th>Change</th></tr>");
+        for (Row row : rows) {
+            html.append("<tr class=\"").append(row.verdict.replace(' ', '_')).append("\"><td>").append(row.verdict)
+                    .append("</td><td>").append(row.kind).append("</td><td>").append(escape(row.name))
+                    .append("</td><td>").append(ms(row.baseline, true)).append("</td><td>").append(ms(row.current, true))
+                    .append("</td><td>").append(change(row, true)).append("</td><td>").append(ms(row.baseline, false))
+                    .append("</td><td>").append(ms(row.current, false)).append("</td><td>").append(change(row, false))
+                    .append("</td></tr>");
+        }
+        return html.append("</table></body></html>").toString();
+    }
+
+    private static String ms(Percentiles percentiles, boolean p50) {
+        return percentiles == null ? "-" : String.format("%.1f ms", p50 ? percentiles.p50Ms : percentiles.p95Ms);
+    }
+
+    private static String change(Row row, boolean p50) {
+        if (row.baseline == null || row.current == null) {
+            return "-";
+        }
+        double before = p50 ? row.baseline.p50Ms : row.baseline.p95Ms;
+        double now = p50 ? row.current.p50Ms : row.current.p95Ms;
+        return before <= 0 ? "-" : String.format("%+.0f%%", (now - before) / before * 100);
+    }
+
+    private static String escape(String text) {
+        return String.valueOf(text).replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,67 @@
+package runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import utilities.ApiStubServer;
+import utilities.BaseClass;
+import utilities.ConfigReader;
+import utilities.Constants;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * PerfRunner runs the scenarios selected by perf_tags against the local ApiStubServer, so durations do not depend on
+ * the network, and either captures them as the performance baseline or compares them with it.
+ * The scenarios run perf_warmup_runs times unmeasured and then perf_runs times measured, one at a time.
+ * These runs are kept out of the duration history, the failure record and the run history, and their reports are
+ * written to Reports/perf, so they never overwrite the reports of a real suite run.
+ * Regressions, and a missing baseline, fail the run when perf_gate_mode is fail and are only reported when it is warn.
+ * The baseline is kept in src/test/resources/perf and is meant to be committed.
+ * It is not picked up by the default build; run it with the perf profile:
+ * mvn test -Pperf -Dperf_capture_baseline=true   (capture a baseline)
+ * mvn test -Pperf                                (compare against it, diff table in Reports/perf-diff.html)
+ *
+ * @see PerfGate
+ * @see ApiStubServer
+ */
+public class PerfRunner extends BaseClass {
+
+    @Test
+    public void compareWithPerformanceBaseline() throws IOException {
+        String tags = ConfigReader.getProperty("perf_tags", "@smoke_api");
+        PerfGate gate = new PerfGate();
+        ApiStubServer.start();
+        try {
+            gate.setRecording(false);
+            for (int i = 0; i < ConfigReader.getInt("perf_warmup_runs", 1); i++) {
+                CucumberLauncher.run(tags, 1, List.of(CucumberLauncher.FEATURES), false, gate);
+            }
+            gate.setRecording(true);
+            for (int i = 0; i < ConfigReader.getInt("perf_runs", 5); i++) {
+                Assert.assertEquals("Cucumber exit status", 0, CucumberLauncher.run(tags, 1, List.of(CucumberLauncher.FEATURES), false, gate));
+            }
+        } finally {
+            ApiStubServer.stop();
+        }
+        if (ConfigReader.getBoolean("perf_capture_baseline", false)) {
+            System.out.println("Captured performance baseline of " + gate.saveBaseline() + " scenarios in "
+                    + Constants.perfBaselineFile + "; commit it so every checkout compares against it");
+            return;
+        }
+        boolean failOnRegression = "fail".equalsIgnoreCase(ConfigReader.getProperty("perf_gate_mode", "fail"));
+        if (!gate.hasBaseline()) {
+            String message = "No performance baseline in " + Constants.perfBaselineFile
+                    + "; capture one with -Dperf_capture_baseline=true and commit it";
+            if (failOnRegression) {
+                Assert.fail(message);
+            }
+            System.out.println("WARNING: " + message + ". Skipping the performance comparison.");
+            return;
+        }
+        List<String> regressed = gate.compare();
+        if (!regressed.isEmpty() && failOnRegression) {
+            Assert.fail("Performance regressions: " + String.join("; ", regressed));
+        }
+    }
+}
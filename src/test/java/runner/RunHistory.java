@@ -0,0 +1,459 @@
+package runner;
+
+import utilities.ConfigReader;
+import utilities.Constants;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * RunHistory is an append-only store of scenario results across runs, kept in Reports/history/runs.bin.
+ * Every run appends one frame of compact binary records (outcome, duration, retry count and failure signature of
+ * each pickle) under a file lock, so shards on the same machine can share the file; nothing is ever rewritten.
+ * Each frame starts with its length and a CRC32 of its content. A frame left incomplete by a crash or a full disk is
+ * cut off before the next append, and a frame whose checksum does not match is skipped while reading, so one bad
+ * append never hides the runs after it.
+ * The query methods read only the last N runs and rank the flakiest scenarios (outcome flipping between runs) and the
+ * most regressed ones (latest passing duration against the median of earlier passing runs).
+ * <p>
+ * Run main to print both rankings, e.g. with -Drun_history_runs=50.
+ *
+ * @see RunHistoryRecorder
+ * @see Constants#runHistoryFile
+ */
+public class RunHistory {
+
+    private static final int MAGIC = 0x52554e48;
+    private static final int VERSION = 2;
+    private static final int FRAME_HEADER = 8;
+    private static final int MAX_TEXT = 1000;
+
+    /**
+     * Result of one pickle in one run.
+     */
+    public static class Record {
+        final String key;
+        final String scenario;
+        final String status;
+        final long durationMillis;
+        final int retries;
+        final String signature;
+
+        /**
+         * Creates a record.
+         *
+         * @param key The feature path and line of the pickle.
+         * @param scenario The scenario name.
+         * @param status The Cucumber status, e.g. PASSED.
+         * @param durationMillis The duration of the pickle.
+         * @param retries How many failed runs of the pickle directly preceded this one.
+         * @param signature The failure signature, or an empty string if it did not fail.
+         */
+        public Record(String key, String scenario, String status, long durationMillis, int retries, String signature) {
+            this.key = key;
+            this.scenario = scenario;
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.retries = retries;
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * The records of one run.
+     */
+    public static class Run {
+        final String id;
+        final long startedAt;
+        final List<Record> records = new ArrayList<>();
+
+        Run(String id, long startedAt) {
+            this.id = id;
+            this.startedAt = startedAt;
+        }
+    }
+
+    /**
+     * A ranked scenario.
+     */
+    public static class Ranking {
+        final String key;
+        final String scenario;
+        final String detail;
+        final double score;
+
+        Ranking(String key, String scenario, String detail, double score) {
+            this.key = key;
+            this.scenario = scenario;
+            this.detail = detail;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return key + " " + scenario + " (" + detail + ")";
+        }
+    }
+
+    /**
+     * Appends the records of a run to the history file.
+     *
+     * @param runId The identifier of the run; shards of one run can share it.
+     * @param startedAt The start of the run in epoch milliseconds.
+     * @param records The results of the run.
+     */
+    public static void append(String runId, long startedAt, List<Record> records) {
+        append(Paths.get(Constants.runHistoryFile), runId, startedAt, records);
+    }
+
+    /**
+     * Appends the records of a run to the given history file.
+     *
+     * @param file The history file.
+     * @param runId The identifier of the run; shards of one run can share it.
+     * @param startedAt The start of the run in epoch milliseconds.
+     * @param records The results of the run.
+     */
+    static void append(Path file, String runId, long startedAt, List<Record> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(text(runId));
+            out.writeLong(startedAt);
+            out.writeInt(records.size());
+            for (Record record : records) {
+                out.writeUTF(text(record.key));
+                out.writeUTF(text(record.scenario));
+                out.writeUTF(record.status);
+                out.writeLong(record.durationMillis);
+                out.writeShort(Math.min(record.retries, Short.MAX_VALUE));
+                out.writeUTF(text(record.signature));
+            }
+            byte[] frame = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(frame);
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    long end = validEnd(channel);
+                    if (end < 0) {
+                        Path old = file.resolveSibling(file.getFileName() + ".old");
+                        Files.copy(file, old, StandardCopyOption.REPLACE_EXISTING);
+                        System.out.println("Run history " + file + " has an older format, moved to " + old);
+                        channel.truncate(0);
+                        end = 0;
+                    }
+                    if (end < channel.size()) {
+                        System.out.println("Cutting an incomplete run of " + (channel.size() - end) + " bytes off " + file);
+                        channel.truncate(end);
+                    }
+                    channel.position(end);
+                    if (end == 0) {
+                        channel.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip());
+                    }
+                    ByteBuffer buffer = ByteBuffer.allocate(FRAME_HEADER + frame.length);
+                    buffer.putInt(frame.length).putInt((int) crc.getValue()).put(frame).flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to append to run history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the last runs of the history file; older runs are skipped while reading.
+     *
+     * @param lastRuns The number of runs to keep.
+     * @return The runs, oldest first.
+     */
+    public static List<Run> read(int lastRuns) {
+        return read(Paths.get(Constants.runHistoryFile), lastRuns);
+    }
+
+    /**
+     * Reads the last runs of the given history file. The frames of one run id are merged into one run wherever
+     * they are in the file, so shards of concurrent runs that appended in turns still give one run each.
+     *
+     * @param file The history file.
+     * @param lastRuns The number of runs to keep.
+     * @return The runs in the order they first appear, oldest first.
+     */
+    static List<Run> read(Path file, int lastRuns) {
+        Map<String, Run> runs = new LinkedHashMap<>();
+        Set<String> dropped = new HashSet<>();
+        if (!Files.exists(file)) {
+            return new ArrayList<>(runs.values());
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.out.println("Unknown run history format in " + file);
+                return new ArrayList<>(runs.values());
+            }
+            long size = Files.size(file);
+            while (true) {
+                byte[] frame;
+                int checksum;
+                try {
+                    int length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 0 || length > size) {
+                        break;
+                    }
+                    frame = new byte[length];
+                    in.readFully(frame);
+                } catch (EOFException end) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(frame);
+                if ((int) crc.getValue() != checksum) {
+                    System.out.println("Skipping a run with a bad checksum in " + file);
+                    continue;
+                }
+                Run run = parse(frame);
+                if (dropped.contains(run.id)) {
+                    continue;
+                }
+                Run known = runs.get(run.id);
+                if (known != null) {
+                    known.records.addAll(run.records);
+                    continue;
+                }
+                runs.put(run.id, run);
+                if (runs.size() > lastRuns) {
+                    String oldest = runs.keySet().iterator().next();
+                    runs.remove(oldest);
+                    dropped.add(oldest);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read run history " + file + ", using the runs read so far: " + e.getMessage());
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    /**
+     * Ranks scenarios by how often their outcome flipped between passed and failed from one run to the next.
+     *
+     * @param runs The runs to analyse, oldest first.
+     * @param top The maximum number of scenarios to return.
+     * @return The flakiest scenarios, flakiest first.
+     */
+    public static List<Ranking> flakiest(List<Run> runs, int top) {
+        List<Ranking> rankings = new ArrayList<>();
+        byKey(runs).forEach((key, records) -> {
+            int flips = 0;
+            int failures = 0;
+            int retries = 0;
+            Set<String> signatures = new HashSet<>();
+            String previous = null;
+            for (Record record : records) {
+                if (previous != null && !previous.equals(record.status)) {
+                    flips++;
+                }
+                previous = record.status;
+                retries = Math.max(retries, record.retries);
+                if ("FAILED".equals(record.status)) {
+                    failures++;
+                    signatures.add(record.signature);
+                }
+            }
+            if (flips == 0) {
+                return;
+            }
+            double score = flips / (double) (records.size() - 1);
+            String detail = String.format("%d flips in %d runs, %d failures, %d signatures, up to %d retries",
+                    flips, records.size(), failures, signatures.size(), retries);
+            rankings.add(new Ranking(key, last(records).scenario, detail, score));
+        });
+        return topOf(rankings, top);
+    }
+
+    /**
+     * Ranks scenarios by how much longer their latest passing run took than the median of their earlier passing runs.
+     *
+     * @param runs The runs to analyse, oldest first.
+     * @param top The maximum number of scenarios to return.
+     * @return The most regressed scenarios, largest added time first.
+     */
+    public static List<Ranking> mostRegressed(List<Run> runs, int top) {
+        List<Ranking> rankings = new ArrayList<>();
+        byKey(runs).forEach((key, records) -> {
+            List<Long> passed = new ArrayList<>();
+            for (Record record : records) {
+                if ("PASSED".equals(record.status)) {
+                    passed.add(record.durationMillis);
+                }
+            }
+            if (passed.size() < 3) {
+                return;
+            }
+            long latest = passed.remove(passed.size() - 1);
+            Collections.sort(passed);
+            long baseline = passed.get(passed.size() / 2);
+            long added = latest - baseline;
+            if (added <= 0) {
+                return;
+            }
+            String detail = String.format("%d ms now, median %d ms over %d runs, +%d ms (x%.2f)",
+                    latest, baseline, passed.size(), added, latest / (double) Math.max(1, baseline));
+            rankings.add(new Ranking(key, last(records).scenario, detail, added));
+        });
+        return topOf(rankings, top);
+    }
+
+    /**
+     * Writes the flakiness and regression rankings of the last run_history_runs runs as an HTML page.
+     *
+     * @param file The page to write.
+     */
+    public static void writeReport(Path file) {
+        int lastRuns = ConfigReader.getInt("run_history_runs", 20);
+        int top = ConfigReader.getInt("run_history_top", 10);
+        List<Run> runs = read(lastRuns);
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Run history</title>"
+                + "<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border-bottom:1px solid #ddd;"
+                + "padding:4px 8px;text-align:left}</style></head><body>");
+        html.append("<h1>Run history</h1><p>Last ").append(runs.size()).append(" runs</p>");
+        section(html, "Flakiest scenarios", flakiest(runs, top));
+        section(html, "Most regressed scenarios", mostRegressed(runs, top));
+        html.append("</body></html>");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, html, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void section(StringBuilder html, String title, List<Ranking> rankings) {
+        html.append("<h2>").append(title).append("</h2>");
+        if (rankings.isEmpty()) {
+            html.append("<p>None</p>");
+            return;
+        }
+        html.append("<table><tr><th>Scenario</th><th>Location</th><th>Details</th></tr>");
+        for (Ranking ranking : rankings) {
+            html.append("<tr><td>").append(escape(ranking.scenario)).append("</td><td>").append(escape(ranking.key))
+                    .append("</td><td>").append(escape(ranking.detail)).append("</td></tr>");
+        }
+        html.append("</table>");
+    }
+
+    private static Run parse(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        Run run = new Run(in.readUTF(), in.readLong());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            run.records.add(new Record(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(),
+                    in.readShort(), in.readUTF()));
+        }
+        return run;
+    }
+
+    /**
+     * Finds the end of the last complete frame, where the next run is appended.
+     *
+     * @return The offset after the last complete frame, 0 for an empty file, or -1 for an unknown format.
+     */
+    private static long validEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < 8) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            return -1;
+        }
+        long position = 8;
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER);
+        while (position + FRAME_HEADER <= size) {
+            frameHeader.clear();
+            channel.read(frameHeader, position);
+            int length = frameHeader.flip().getInt();
+            if (length < 0 || position + FRAME_HEADER + length > size) {
+                break;
+            }
+            position += FRAME_HEADER + length;
+        }
+        return position;
+    }
+
+    private static Map<String, List<Record>> byKey(List<Run> runs) {
+        Map<String, List<Record>> byKey = new LinkedHashMap<>();
+        for (Run run : runs) {
+            for (Record record : run.records) {
+                byKey.computeIfAbsent(record.key, key -> new ArrayList<>()).add(record);
+            }
+        }
+        return byKey;
+    }
+
+    private static List<Ranking> topOf(List<Ranking> rankings, int top) {
+        rankings.sort(Comparator.comparingDouble((Ranking ranking) -> ranking.score).reversed());
+        return rankings.size() > top ? new ArrayList<>(rankings.subList(0, top)) : rankings;
+    }
+
+    private static Record last(List<Record> records) {
+        return records.get(records.size() - 1);
+    }
+
+    private static String text(String value) {
+        value = value == null ? "" : value;
+        return value.length() > MAX_TEXT ? value.substring(0, MAX_TEXT) : value;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Prints the flakiest and most regressed scenarios of the last run_history_runs runs.
+     *
+     * @param args Not used; configure the query through system properties.
+     */
+    public static void main(String[] args) {
+        List<Run> runs = read(ConfigReader.getInt("run_history_runs", 20));
+        int top = ConfigReader.getInt("run_history_top", 10);
+        System.out.println("Flakiest scenarios in the last " + runs.size() + " runs:");
+        flakiest(runs, top).forEach(ranking -> System.out.println("  " + ranking));
+        System.out.println("Most regressed scenarios in the last " + runs.size() + " runs:");
+        mostRegressed(runs, top).forEach(ranking -> System.out.println("  " + ranking));
+    }
+}
@@ -0,0 +1,76 @@
+package runner;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import utilities.ConfigReader;
+import utilities.Constants;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RunHistoryRecorder is a Cucumber plugin that appends the result of every passed or failed pickle of the run to the
+ * RunHistory and then writes Reports/run-history.html with the flakiest and most regressed scenarios.
+ * The retry count of a pickle is the number of failed runs that directly preceded it, taken from the FailureRecorder.
+ * Set run_id (e.g. -Drun_id=$BUILD_NUMBER) to record the shards of one run as a single run.
+ *
+ * @see RunHistory
+ * @see FailureRecorder
+ */
+public class RunHistoryRecorder implements ConcurrentEventListener {
+
+    public static final String REPORT_FILE = "run-history.html";
+
+    private final Map<UUID, String> failedSteps = new ConcurrentHashMap<>();
+    private final List<RunHistory.Record> records = new CopyOnWriteArrayList<>();
+    private volatile Map<String, FailureRecorder.Failure> previousFailures = Map.of();
+    private volatile long startedAt;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> {
+            startedAt = event.getInstant().toEpochMilli();
+            previousFailures = FailureRecorder.load();
+        });
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::caseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> finish());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (event.getResult().getStatus() == Status.FAILED) {
+            String step = event.getTestStep() instanceof PickleStepTestStep
+                    ? ((PickleStepTestStep) event.getTestStep()).getStep().getText()
+                    : "hook " + event.getTestStep().getCodeLocation();
+            failedSteps.putIfAbsent(event.getTestCase().getId(), step);
+        }
+    }
+
+    private void caseFinished(TestCaseFinished event) {
+        String step = failedSteps.remove(event.getTestCase().getId());
+        Status status = event.getResult().getStatus();
+        if (status != Status.PASSED && status != Status.FAILED) {
+            return;
+        }
+        String key = DurationHistory.keyOf(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine());
+        FailureRecorder.Failure previous = previousFailures.get(key);
+        String signature = status == Status.FAILED ? FailureRecorder.signatureOf(step, event.getResult().getError()) : "";
+        records.add(new RunHistory.Record(key, event.getTestCase().getName(), status.name(),
+                event.getResult().getDuration().toMillis(), previous == null ? 0 : previous.consecutiveFailures, signature));
+    }
+
+    private void finish() {
+        RunHistory.append(ConfigReader.getProperty("run_id", String.valueOf(startedAt)), startedAt, records);
+        RunHistory.writeReport(Paths.get(Constants.reportsPath, REPORT_FILE));
+    }
+}
@@ -0,0 +1,184 @@
+package runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the binary format of RunHistory (round trip, torn and corrupted frames, runs appended in turns by
+ * concurrent shards) and its rankings, on history files in a temporary folder.
+ *
+ * @see RunHistory
+ */
+public class RunHistoryTest {
+
+    private static final String KEY = "features/Books.feature:12";
+
+    @Test
+    public void readsBackWhatWasAppended() throws IOException {
+        Path file = historyFile();
+        RunHistory.append(file, "run-1", 1000, List.of(record(KEY, "PASSED", 120, 0, "")));
+        RunHistory.append(file, "run-2", 2000, List.of(record(KEY, "FAILED", 340, 2, "AssertionError: 404"),
+                record("features/Login.feature:7", "PASSED", 80, 0, "")));
+
+        List<RunHistory.Run> runs = RunHistory.read(file, 10);
+
+        Assert.assertEquals(2, runs.size());
+        Assert.assertEquals("run-1", runs.get(0).id);
+        Assert.assertEquals(1000, runs.get(0).startedAt);
+        RunHistory.Record failed = runs.get(1).records.get(0);
+        Assert.assertEquals(KEY, failed.key);
+        Assert.assertEquals("FAILED", failed.status);
+        Assert.assertEquals(340, failed.durationMillis);
+        Assert.assertEquals(2, failed.retries);
+        Assert.assertEquals("AssertionError: 404", failed.signature);
+        Assert.assertEquals(2, runs.get(1).records.size());
+    }
+
+    @Test
+    public void keepsOnlyTheLastRuns() throws IOException {
+        Path file = historyFile();
+        for (int i = 1; i <= 5; i++) {
+            RunHistory.append(file, "run-" + i, i, List.of(record(KEY, "PASSED", 100, 0, "")));
+        }
+
+        List<RunHistory.Run> runs = RunHistory.read(file, 2);
+
+        Assert.assertEquals(2, runs.size());
+        Assert.assertEquals("run-4", runs.get(0).id);
+        Assert.assertEquals("run-5", runs.get(1).id);
+    }
+
+    @Test
+    public void cutsATornLastFrameOnTheNextAppend() throws IOException {
+        Path file = historyFile();
+        RunHistory.append(file, "run-1", 1000, List.of(record(KEY, "PASSED", 100, 0, "")));
+        long intact = Files.size(file);
+        RunHistory.append(file, "run-2", 2000, List.of(record(KEY, "PASSED", 110, 0, "")));
+        truncate(file, Files.size(file) - 5);
+
+        Assert.assertEquals(1, RunHistory.read(file, 10).size());
+
+        RunHistory.append(file, "run-3", 3000, List.of(record(KEY, "PASSED", 120, 0, "")));
+        List<RunHistory.Run> runs = RunHistory.read(file, 10);
+
+        Assert.assertEquals(2, runs.size());
+        Assert.assertEquals("run-1", runs.get(0).id);
+        Assert.assertEquals("run-3", runs.get(1).id);
+        Assert.assertEquals(2 * intact - 8, Files.size(file));
+    }
+
+    @Test
+    public void skipsACorruptedFrameWithoutHidingLaterRuns() throws IOException {
+        Path file = historyFile();
+        RunHistory.append(file, "run-1", 1000, List.of(record(KEY, "PASSED", 100, 0, "")));
+        long secondFrame = Files.size(file);
+        RunHistory.append(file, "run-2", 2000, List.of(record(KEY, "PASSED", 110, 0, "")));
+        RunHistory.append(file, "run-3", 3000, List.of(record(KEY, "PASSED", 120, 0, "")));
+        flipByte(file, secondFrame + 12);
+
+        List<RunHistory.Run> runs = RunHistory.read(file, 10);
+
+        Assert.assertEquals(2, runs.size());
+        Assert.assertEquals("run-1", runs.get(0).id);
+        Assert.assertEquals("run-3", runs.get(1).id);
+    }
+
+    @Test
+    public void mergesShardsOfConcurrentRunsAppendedInTurns() throws IOException {
+        Path file = historyFile();
+        RunHistory.append(file, "run-a", 1000, List.of(record("a:1", "PASSED", 100, 0, "")));
+        RunHistory.append(file, "run-b", 1001, List.of(record("b:1", "PASSED", 100, 0, "")));
+        RunHistory.append(file, "run-a", 1000, List.of(record("a:2", "PASSED", 100, 0, "")));
+        RunHistory.append(file, "run-b", 1001, List.of(record("b:2", "FAILED", 100, 0, "x")));
+
+        List<RunHistory.Run> runs = RunHistory.read(file, 10);
+
+        Assert.assertEquals(2, runs.size());
+        Assert.assertEquals("run-a", runs.get(0).id);
+        Assert.assertEquals(2, runs.get(0).records.size());
+        Assert.assertEquals("run-b", runs.get(1).id);
+        Assert.assertEquals(2, runs.get(1).records.size());
+    }
+
+    @Test
+    public void ranksTheScenariosThatFlipMostAsFlakiest() {
+        List<RunHistory.Run> runs = runs(
+                new String[]{"PASSED", "FAILED", "PASSED", "FAILED"},
+                new String[]{"PASSED", "PASSED", "FAILED", "FAILED"},
+                new String[]{"PASSED", "PASSED", "PASSED", "PASSED"});
+
+        List<RunHistory.Ranking> flakiest = RunHistory.flakiest(runs, 10);
+
+        Assert.assertEquals(2, flakiest.size());
+        Assert.assertEquals("s:0", flakiest.get(0).key);
+        Assert.assertEquals(1.0, flakiest.get(0).score, 0.0);
+        Assert.assertEquals("s:1", flakiest.get(1).key);
+        Assert.assertEquals(1, RunHistory.flakiest(runs, 1).size());
+    }
+
+    @Test
+    public void ranksTheLargestSlowdownOverTheMedianAsMostRegressed() {
+        List<RunHistory.Run> runs = new ArrayList<>();
+        long[][] durations = {{100, 500}, {110, 100}, {90, 100}, {100, 100}, {100, 300}};
+        for (int i = 0; i < durations.length; i++) {
+            RunHistory.Run run = new RunHistory.Run("run-" + i, i);
+            run.records.add(record("fast:1", "PASSED", durations[i][0], 0, ""));
+            run.records.add(record("slow:1", "PASSED", durations[i][1], 0, ""));
+            runs.add(run);
+        }
+        runs.get(4).records.add(record("failing:1", "FAILED", 9000, 0, "x"));
+
+        List<RunHistory.Ranking> regressed = RunHistory.mostRegressed(runs, 10);
+
+        Assert.assertEquals(1, regressed.size());
+        Assert.assertEquals("slow:1", regressed.get(0).key);
+        Assert.assertEquals(200.0, regressed.get(0).score, 0.0);
+    }
+
+    private static List<RunHistory.Run> runs(String[]... statusesByScenario) {
+        List<RunHistory.Run> runs = new ArrayList<>();
+        for (int i = 0; i < statusesByScenario[0].length; i++) {
+            RunHistory.Run run = new RunHistory.Run("run-" + i, i);
+            for (int scenario = 0; scenario < statusesByScenario.length; scenario++) {
+                String status = statusesByScenario[scenario][i];
+                run.records.add(record("s:" + scenario, status, 100, 0, "FAILED".equals(status) ? "x" : ""));
+            }
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    private static RunHistory.Record record(String key, String status, long durationMillis, int retries, String signature) {
+        return new RunHistory.Record(key, "Scenario " + key, status, durationMillis, retries, signature);
+    }
+
+    private static Path historyFile() throws IOException {
+        Path folder = Files.createTempDirectory("run-history");
+        folder.toFile().deleteOnExit();
+        Path file = folder.resolve("runs.bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size);
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xff);
+        }
+    }
+}
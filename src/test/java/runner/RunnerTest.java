@@ -10,7 +10,8 @@ import utilities.BaseClass;
 @CucumberOptions(
 		features = "src/test/resources/features",
 		glue = {"stepDefinitions","hooks"},
-		plugin = {"com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"},
+		plugin = {"com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:", "runner.FailureRecorder", "runner.StreamingReport", "runner.StepMetrics",
+				"runner.RunHistoryRecorder", "runner.FlightRecording"},
 		monochrome = true,
 		tags = "@smoke_api")
 public class RunnerTest extends BaseClass {
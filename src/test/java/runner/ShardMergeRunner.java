@@ -0,0 +1,21 @@
+package runner;
+
+import org.junit.Test;
+import utilities.BaseClass;
+
+import java.io.IOException;
+
+/**
+ * ShardMergeRunner combines the output of all shards once they have finished.
+ * It is not picked up by the default build; run it with the merge-shards profile:
+ * mvn test -Pmerge-shards
+ *
+ * @see ShardMerger
+ */
+public class ShardMergeRunner extends BaseClass {
+
+    @Test
+    public void mergeShards() throws IOException {
+        ShardMerger.merge();
+    }
+}
@@ -0,0 +1,144 @@
+package runner;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import utilities.Constants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ShardMerger combines the output of the shards of a run into one result: the Cucumber JSON files into
+ * Reports/cucumber.json (scenarios of a feature split across shards are joined under one feature),
+ * the Extent JSON archives into Reports/SparkReport.html, and the recorded durations into the duration history.
+ * Run it once every shard has finished. Shards whose assignment ids differ are rejected.
+ *
+ * @see CucumberLauncher#shardFolder(int)
+ * @see ShardSelection
+ */
+public class ShardMerger {
+
+    public static final String CUCUMBER_JSON = "cucumber.json";
+    public static final String EXTENT_JSON = "Extent.json";
+    public static final String DURATIONS_JSON = "durations.json";
+    public static final String ASSIGNMENT_FILE = "assignment.txt";
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Merges the output of every shard found under Reports/shards.
+     *
+     * @return The number of shards merged.
+     * @throws IOException If a shard's output cannot be read or the merged files cannot be written.
+     */
+    public static int merge() throws IOException {
+        Path shardsFolder = Paths.get(Constants.reportsPath, CucumberLauncher.SHARDS_FOLDER);
+        if (!Files.isDirectory(shardsFolder)) {
+            System.out.println("No shard output found in " + shardsFolder);
+            return 0;
+        }
+        List<Path> shards;
+        try (Stream<Path> folders = Files.list(shardsFolder)) {
+            shards = folders.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+        checkAssignments(shards);
+        mergeCucumberJson(shards, Paths.get(Constants.reportsPath, CUCUMBER_JSON));
+        mergeExtent(shardsFolder, Paths.get(Constants.reportsPath, "SparkReport.html"));
+        DurationHistory history = DurationHistory.load();
+        for (Path shard : shards) {
+            history.merge(shard.resolve(DURATIONS_JSON));
+        }
+        history.save();
+        System.out.println("Merged " + shards.size() + " shards into " + Constants.reportsPath);
+        return shards.size();
+    }
+
+    /**
+     * Checks that every shard was assigned its pickles from the same input; otherwise some pickles may have run in
+     * several shards and others in none.
+     */
+    private static void checkAssignments(List<Path> shards) throws IOException {
+        Map<String, String> assignments = new LinkedHashMap<>();
+        for (Path shard : shards) {
+            Path file = shard.resolve(ASSIGNMENT_FILE);
+            assignments.put(shard.getFileName().toString(),
+                    Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8).trim() : "unknown");
+        }
+        if (assignments.values().stream().distinct().count() > 1) {
+            throw new IOException("Shards were assigned from different input and cannot be merged: " + assignments);
+        }
+    }
+
+    /**
+     * Joins the features of every shard's Cucumber JSON, appending the scenarios of features that appear in several shards.
+     */
+    private static void mergeCucumberJson(List<Path> shards, Path target) throws IOException {
+        Map<String, JsonObject> features = new LinkedHashMap<>();
+        for (Path shard : shards) {
+            Path file = shard.resolve(CUCUMBER_JSON);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            for (JsonElement element : JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonArray()) {
+                JsonObject feature = element.getAsJsonObject();
+                String uri = feature.get("uri").getAsString();
+                JsonObject merged = features.get(uri);
+                if (merged == null) {
+                    features.put(uri, feature);
+                } else if (feature.has("elements")) {
+                    if (!merged.has("elements")) {
+                        merged.add("elements", new JsonArray());
+                    }
+                    merged.getAsJsonArray("elements").addAll(feature.getAsJsonArray("elements"));
+                }
+            }
+        }
+        JsonArray result = new JsonArray();
+        features.values().forEach(result::add);
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, gson.toJson(result), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds one Spark report from the Extent JSON archives written by the shards.
+     */
+    private static void mergeExtent(Path shardsFolder, Path target) throws IOException {
+        List<Path> archives;
+        try (Stream<Path> files = Files.walk(shardsFolder)) {
+            archives = files.filter(file -> file.getFileName().toString().equals(EXTENT_JSON)).sorted().collect(Collectors.toList());
+        }
+        if (archives.isEmpty()) {
+            return;
+        }
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(new ExtentSparkReporter(target.toString()));
+        for (Path archive : archives) {
+            extent.createDomainFromJsonArchive(archive.toFile());
+        }
+        extent.flush();
+    }
+
+    /**
+     * Merges the shard output from the command line.
+     *
+     * @param args Not used.
+     * @throws IOException If the output cannot be merged.
+     */
+    public static void main(String[] args) throws IOException {
+        merge();
+    }
+}
@@ -0,0 +1,79 @@
+package runner;
+
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.order.PickleOrder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ShardSelection keeps only the pickles that belong to one shard of a run split across several JVMs or machines.
+ * Shard membership depends only on input every shard shares: the pickles, sorted by feature path and line, and
+ * optionally a duration history given explicitly with shard.history (e.g. the merged durations of the last run,
+ * published by CI). With that history the pickles are assigned longest first, each to the shard with the least
+ * estimated work, so the shards are balanced; without it they are dealt out round-robin. Either way every pickle runs
+ * in exactly one shard. The local duration history of the machine is only used to order the selected pickles.
+ * <p>
+ * The assignment id (number of shards and digest of the shared history) is printed and written to the shard folder,
+ * so ShardMerger can reject shards that were assigned from different input.
+ *
+ * @see LptSchedule#assign(List, java.util.function.ToLongFunction, int)
+ * @see ShardMerger
+ */
+public class ShardSelection implements PickleOrder {
+
+    private final LptSchedule schedule;
+    private final DurationHistory shared;
+    private final String assignmentId;
+    private final int index;
+    private final int total;
+
+    /**
+     * Creates the selection of one shard.
+     *
+     * @param schedule The schedule used to order the selected pickles.
+     * @param shared The duration history shared by every shard, or null to assign the pickles round-robin.
+     * @param sharedDigest The digest of the shared history file, ignored without a shared history.
+     * @param index The zero-based index of this shard.
+     * @param total The number of shards.
+     */
+    public ShardSelection(LptSchedule schedule, DurationHistory shared, String sharedDigest, int index, int total) {
+        this.schedule = schedule;
+        this.shared = shared;
+        this.assignmentId = "shards=" + total + " history=" + (shared == null ? "none (round-robin)" : sharedDigest);
+        this.index = index;
+        this.total = total;
+    }
+
+    /**
+     * Retrieves the identifier of the input the shards were assigned from; it must be equal for every shard of a run.
+     *
+     * @return The number of shards and the digest of the shared history.
+     */
+    public String getAssignmentId() {
+        return assignmentId;
+    }
+
+    @Override
+    public List<Pickle> orderPickles(List<Pickle> pickles) {
+        List<Pickle> sorted = new ArrayList<>(pickles);
+        sorted.sort(Comparator.comparing(ShardSelection::keyOf));
+        List<Pickle> selected = new ArrayList<>();
+        if (shared == null) {
+            for (int i = index; i < sorted.size(); i += total) {
+                selected.add(sorted.get(i));
+            }
+        } else {
+            selected = LptSchedule.assign(sorted, pickle -> shared.estimate(keyOf(pickle)), total).get(index);
+        }
+        long estimate = selected.stream().mapToLong(schedule::estimate).sum();
+        System.out.printf("Shard %d of %d (%s): %d of %d pickles, estimated %.1f s of work%n",
+                index + 1, total, assignmentId, selected.size(), pickles.size(), estimate / 1000.0);
+        return schedule.orderPickles(selected);
+    }
+
+    private static String keyOf(Pickle pickle) {
+        return DurationHistory.keyOf(pickle.getUri(), pickle.getLocation().getLine());
+    }
+}
@@ -0,0 +1,231 @@
+package runner;
+
+import com.google.gson.GsonBuilder;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import utilities.Constants;
+import utilities.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StepMetrics is a Cucumber plugin that records the duration of every step, hook and scenario into latency
+ * histograms. Steps are keyed by their step definition pattern, so every use of a step adds to the same histogram,
+ * hooks by their class and method (e.g. Hooks.beforeHook, BookStoreDemoStepDefinitions.setUp) and scenarios by name.
+ * At the end of the run it writes step-metrics.json, with p50, p90 and p99 per step, and step-metrics.prom, a
+ * Prometheus histogram per step with fixed buckets from 1 ms to 2 minutes, to the reports folder. The histogram
+ * buckets are the same for every step and every run, so the files of several shards or runs can be added up and
+ * their quantiles computed from the sum, which quantiles of single runs do not allow.
+ * <p>
+ * Register it as runner.StepMetrics or runner.StepMetrics:&lt;folder&gt;.
+ *
+ * @see LatencyHistogram
+ * @see RunnerTest
+ */
+public class StepMetrics implements ConcurrentEventListener {
+
+    public static final String JSON_FILE = "step-metrics.json";
+    public static final String PROMETHEUS_FILE = "step-metrics.prom";
+
+    /**
+     * Upper bounds of the Prometheus histogram buckets, in seconds; the +Inf bucket is added to them.
+     */
+    private static final double[] BUCKET_BOUNDS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120};
+
+    private final Path folder;
+    private final Map<Key, Timing> timings = new ConcurrentHashMap<>();
+
+    /**
+     * Kind of timed unit, also the Prometheus metric it is exported as.
+     */
+    enum Kind {
+        STEP("cucumber_step_duration_seconds"),
+        HOOK("cucumber_hook_duration_seconds"),
+        SCENARIO("cucumber_scenario_duration_seconds");
+
+        final String metric;
+
+        Kind(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static class Key {
+        final Kind kind;
+        final String name;
+
+        Key(Kind kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).kind == kind && ((Key) other).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return kind.hashCode() * 31 + name.hashCode();
+        }
+    }
+
+    /**
+     * Durations in microseconds and the number of failures of one step, hook or scenario.
+     */
+    private static class Timing {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong failures = new AtomicLong();
+    }
+
+    /**
+     * Creates the plugin writing to the reports folder.
+     */
+    public StepMetrics() {
+        this(Constants.reportsPath);
+    }
+
+    /**
+     * Creates the plugin writing to the given folder.
+     *
+     * @param folder The folder to write the metrics files to.
+     */
+    public StepMetrics(String folder) {
+        this.folder = Paths.get(folder);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, event ->
+                record(Kind.SCENARIO, event.getTestCase().getName(), event.getResult().getDuration(), event.getResult().getStatus()));
+        publisher.registerHandlerFor(TestRunFinished.class, event -> write());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            record(Kind.STEP, ((PickleStepTestStep) event.getTestStep()).getPattern(),
+                    event.getResult().getDuration(), event.getResult().getStatus());
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            record(Kind.HOOK, hookName(event.getTestStep().getCodeLocation()),
+                    event.getResult().getDuration(), event.getResult().getStatus());
+        }
+    }
+
+    private void record(Kind kind, String name, Duration duration, Status status) {
+        if (status == Status.SKIPPED || status == Status.UNDEFINED || status == Status.PENDING) {
+            return;
+        }
+        Timing timing = timings.computeIfAbsent(new Key(kind, name), key -> new Timing());
+        timing.histogram.record(duration.toNanos() / 1000);
+        if (status == Status.FAILED) {
+            timing.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Shortens a hook code location such as hooks.Hooks.beforeHook(io.cucumber.java.Scenario) to Hooks.beforeHook.
+     */
+    private static String hookName(String codeLocation) {
+        String method = codeLocation.contains("(") ? codeLocation.substring(0, codeLocation.indexOf('(')) : codeLocation;
+        int dot = method.lastIndexOf('.');
+        int classDot = dot > 0 ? method.lastIndexOf('.', dot - 1) : -1;
+        return method.substring(classDot + 1);
+    }
+
+    private void write() {
+        if (timings.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Timing>> sorted = new ArrayList<>(timings.entrySet());
+        sorted.sort((a, b) -> a.getKey().kind != b.getKey().kind
+                ? a.getKey().kind.compareTo(b.getKey().kind)
+                : Long.compare(b.getValue().histogram.getTotal(), a.getValue().histogram.getTotal()));
+        try {
+            Files.createDirectories(folder);
+            Files.writeString(folder.resolve(JSON_FILE), toJson(sorted), StandardCharsets.UTF_8);
+            Files.writeString(folder.resolve(PROMETHEUS_FILE), toPrometheus(sorted), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.out.println("Unable to write step metrics to " + folder + ": " + e.getMessage());
+        }
+    }
+
+    private static String toJson(List<Map.Entry<Key, Timing>> sorted) {
+        Map<String, List<Map<String, Object>>> summary = new LinkedHashMap<>();
+        for (Kind kind : Kind.values()) {
+            summary.put(kind.name().toLowerCase() + "s", new ArrayList<>());
+        }
+        for (Map.Entry<Key, Timing> entry : sorted) {
+            LatencyHistogram histogram = entry.getValue().histogram;
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", entry.getKey().name);
+            item.put("count", histogram.getCount());
+            item.put("failures", entry.getValue().failures.get());
+            item.put("totalMs", histogram.getTotal() / 1000.0);
+            item.put("meanMs", histogram.getMean() / 1000.0);
+            item.put("p50Ms", histogram.getPercentile(50) / 1000.0);
+            item.put("p90Ms", histogram.getPercentile(90) / 1000.0);
+            item.put("p99Ms", histogram.getPercentile(99) / 1000.0);
+            item.put("maxMs", histogram.getMax() / 1000.0);
+            summary.get(entry.getKey().kind.name().toLowerCase() + "s").add(item);
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(summary);
+    }
+
+    private static String toPrometheus(List<Map.Entry<Key, Timing>> sorted) {
+        StringBuilder text = new StringBuilder();
+        Kind current = null;
+        for (Map.Entry<Key, Timing> entry : sorted) {
+            Kind kind = entry.getKey().kind;
+            if (kind != current) {
+                current = kind;
+                text.append("# HELP ").append(kind.metric).append(" Duration of Cucumber ")
+                        .append(kind.name().toLowerCase()).append("s.\n");
+                text.append("# TYPE ").append(kind.metric).append(" histogram\n");
+            }
+            String label = "name=\"" + escapeLabel(entry.getKey().name) + "\"";
+            LatencyHistogram histogram = entry.getValue().histogram;
+            for (double bound : BUCKET_BOUNDS) {
+                text.append(kind.metric).append("_bucket{").append(label).append(",le=\"").append(bound).append("\"} ")
+                        .append(histogram.getCountAtOrBelow(Math.round(bound * 1_000_000))).append('\n');
+            }
+            text.append(kind.metric).append("_bucket{").append(label).append(",le=\"+Inf\"} ")
+                    .append(histogram.getCount()).append('\n');
+            text.append(kind.metric).append("_sum{").append(label).append("} ").append(seconds(histogram.getTotal())).append('\n');
+            text.append(kind.metric).append("_count{").append(label).append("} ").append(histogram.getCount()).append('\n');
+        }
+        text.append("# HELP cucumber_failures_total Failed executions of Cucumber steps, hooks and scenarios.\n");
+        text.append("# TYPE cucumber_failures_total counter\n");
+        for (Map.Entry<Key, Timing> entry : sorted) {
+            text.append("cucumber_failures_total{kind=\"").append(entry.getKey().kind.name().toLowerCase())
+                    .append("\",name=\"").append(escapeLabel(entry.getKey().name)).append("\"} ")
+                    .append(entry.getValue().failures.get()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1_000_000.0);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,289 @@
+package runner;
+
+import com.google.gson.Gson;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.WriteEvent;
+import utilities.Constants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StreamingReport is a Cucumber plugin that writes the report while the run is going instead of at the end.
+ * Every finished scenario is written to its own HTML page and dropped from memory, and one line describing it is
+ * appended to index.js, so heap use does not grow with the size of the suite. Attachments such as screenshots are
+ * written once as separate files (named by content hash) and referenced by path rather than embedded as base64.
+ * The index.html viewer lists the scenarios from index.js and loads a scenario page only when it is opened.
+ * <p>
+ * Register it as runner.StreamingReport (output in Reports/stream) or runner.StreamingReport:&lt;folder&gt;.
+ *
+ * @see CucumberLauncher
+ * @see RunnerTest
+ */
+public class StreamingReport implements ConcurrentEventListener {
+
+    public static final String DEFAULT_FOLDER = Constants.reportsPath + "stream";
+
+    private static final Gson gson = new Gson();
+
+    private final Path folder;
+    private final Map<UUID, CaseState> running = new ConcurrentHashMap<>();
+    private final Set<String> writtenAttachments = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<Status, AtomicInteger> totals = new ConcurrentHashMap<>();
+    private BufferedWriter index;
+
+    /**
+     * Output of a scenario that is still running.
+     */
+    private static class CaseState {
+        final StringBuilder body = new StringBuilder();
+    }
+
+    /**
+     * Creates the report in Reports/stream.
+     */
+    public StreamingReport() {
+        this(DEFAULT_FOLDER);
+    }
+
+    /**
+     * Creates the report in the given folder.
+     *
+     * @param folder The folder to write the report to.
+     */
+    public StreamingReport(String folder) {
+        this.folder = Paths.get(folder);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> start());
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> running.put(event.getTestCase().getId(), new CaseState()));
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(WriteEvent.class, this::write);
+        publisher.registerHandlerFor(EmbedEvent.class, this::embed);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::caseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> finish());
+    }
+
+    /**
+     * Creates the folders, the viewer page and an empty index.
+     */
+    private synchronized void start() {
+        try {
+            Files.createDirectories(folder.resolve("scenarios"));
+            Files.createDirectories(folder.resolve("attachments"));
+            Files.writeString(folder.resolve("index.html"), VIEWER, StandardCharsets.UTF_8);
+            Files.writeString(folder.resolve("report.css"), CSS, StandardCharsets.UTF_8);
+            index = Files.newBufferedWriter(folder.resolve("index.js"), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create streaming report in " + folder, e);
+        }
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        CaseState state = running.get(event.getTestCase().getId());
+        if (state == null) {
+            return;
+        }
+        Result result = event.getResult();
+        String name;
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            name = step.getStep().getKeyword() + step.getStep().getText();
+        } else if (result.getStatus() == Status.PASSED || result.getStatus() == Status.SKIPPED) {
+            return;
+        } else {
+            name = ((HookTestStep) event.getTestStep()).getHookType() + " hook " + event.getTestStep().getCodeLocation();
+        }
+        state.body.append("<tr class=\"").append(result.getStatus().name().toLowerCase()).append("\"><td>")
+                .append(escape(name)).append("</td><td>").append(result.getStatus()).append("</td><td>")
+                .append(result.getDuration().toMillis()).append(" ms</td></tr>");
+        if (result.getError() != null) {
+            state.body.append("<tr><td colspan=\"3\"><pre>").append(escape(String.valueOf(result.getError())))
+                    .append("</pre></td></tr>");
+        }
+    }
+
+    /**
+     * Adds a scenario.log message. Messages are already formatted as HTML by the framework.
+     */
+    private void write(WriteEvent event) {
+        CaseState state = running.get(event.getTestCase().getId());
+        if (state != null) {
+            state.body.append("<tr class=\"log\"><td colspan=\"3\">").append(event.getText()).append("</td></tr>");
+        }
+    }
+
+    /**
+     * Writes an attachment to its own file and adds a link, or an image for screenshots, to the scenario.
+     */
+    private void embed(EmbedEvent event) {
+        CaseState state = running.get(event.getTestCase().getId());
+        if (state == null) {
+            return;
+        }
+        String file = "attachments/" + sha256(event.getData()) + "." + extensionOf(event.getMediaType());
+        if (writtenAttachments.add(file)) {
+            try {
+                Files.write(folder.resolve(file), event.getData());
+            } catch (IOException e) {
+                writtenAttachments.remove(file);
+                System.out.println("Unable to write attachment " + file + ": " + e.getMessage());
+            }
+        }
+        String name = escape(event.getName() == null ? file : event.getName());
+        state.body.append("<tr class=\"log\"><td colspan=\"3\">");
+        if (event.getMediaType().startsWith("image/")) {
+            state.body.append("<a href=\"../").append(file).append("\"><img loading=\"lazy\" src=\"../").append(file)
+                    .append("\" alt=\"").append(name).append("\"></a>");
+        } else {
+            state.body.append("<a href=\"../").append(file).append("\">").append(name).append("</a>");
+        }
+        state.body.append("</td></tr>");
+    }
+
+    /**
+     * Writes the page of a finished scenario, appends it to the index and forgets it.
+     */
+    private void caseFinished(TestCaseFinished event) {
+        CaseState state = running.remove(event.getTestCase().getId());
+        if (state == null) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        Status status = event.getResult().getStatus();
+        totals.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+        int id = sequence.incrementAndGet();
+        String page = "scenarios/" + id + ".html";
+        String location = DurationHistory.keyOf(testCase.getUri(), testCase.getLocation().getLine());
+        String html = "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><link rel=\"stylesheet\" href=\"../report.css\"></head><body>"
+                + "<h2>" + escape(testCase.getName()) + "</h2><p>" + escape(location) + " " + escape(String.join(" ", testCase.getTags()))
+                + "</p><table>" + state.body + "</table></body></html>";
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", id);
+        entry.put("name", testCase.getName());
+        entry.put("location", location);
+        entry.put("status", status.name());
+        entry.put("durationMs", event.getResult().getDuration().toMillis());
+        entry.put("page", page);
+        try {
+            Files.writeString(folder.resolve(page), html, StandardCharsets.UTF_8);
+            appendIndex("R(" + gson.toJson(entry) + ");");
+        } catch (IOException e) {
+            System.out.println("Unable to write report page " + page + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the run totals to the index and closes it.
+     */
+    private synchronized void finish() {
+        if (index == null) {
+            return;
+        }
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        totals.forEach((status, count) -> summary.put(status.name(), count.get()));
+        try {
+            appendIndex("S(" + gson.toJson(summary) + ");");
+            index.close();
+        } catch (IOException e) {
+            System.out.println("Unable to finish streaming report: " + e.getMessage());
+        }
+        index = null;
+    }
+
+    private synchronized void appendIndex(String line) throws IOException {
+        if (index == null) {
+            return;
+        }
+        index.write(line);
+        index.newLine();
+        index.flush();
+    }
+
+    private static String extensionOf(String mediaType) {
+        switch (mediaType) {
+            case "image/png": return "png";
+            case "image/jpeg": return "jpg";
+            case "text/plain": return "txt";
+            case "text/html": return "html";
+            case "application/json": return "json";
+            default: return "bin";
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)).substring(0, 32);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static final String CSS =
+            "body{font-family:sans-serif;margin:16px}table{border-collapse:collapse;width:100%}"
+            + "td,th{border-bottom:1px solid #ddd;padding:4px 8px;text-align:left;vertical-align:top}"
+            + ".passed td:nth-child(2){color:#2a7d2a}.failed td:nth-child(2){color:#c0392b}"
+            + ".skipped td:nth-child(2),.undefined td:nth-child(2),.pending td:nth-child(2){color:#b9770e}"
+            + ".log td{color:#555;font-size:90%}img{max-width:480px}tr.row{cursor:pointer}tr.row:hover{background:#f4f4f4}"
+            + "iframe{width:100%;height:70vh;border:1px solid #ddd}pre{white-space:pre-wrap}";
+
+    /**
+     * Viewer page: lists the scenarios from index.js and loads a scenario page into the frame when it is clicked.
+     * index.js is a script rather than JSON so the report also opens from the file system.
+     */
+    private static final String VIEWER =
+            "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Test Report</title>"
+            + "<link rel=\"stylesheet\" href=\"report.css\"></head><body><h1>Test Report</h1><p id=\"summary\"></p>"
+            + "<p><select id=\"filter\"><option value=\"\">All</option><option>FAILED</option><option>PASSED</option>"
+            + "<option>SKIPPED</option></select></p><iframe id=\"page\" name=\"page\"></iframe>"
+            + "<table><thead><tr><th>#</th><th>Scenario</th><th>Location</th><th>Status</th><th>Duration</th></tr></thead>"
+            + "<tbody id=\"rows\"></tbody></table><script>"
+            + "var rows = [], summary = null; function R(r) { rows.push(r); } function S(s) { summary = s; }"
+            + "</script><script src=\"index.js\"></script><script>"
+            + "function text(t) { return document.createTextNode(t); }"
+            + "function render() { var body = document.getElementById('rows'), f = document.getElementById('filter').value;"
+            + " body.innerHTML = ''; rows.forEach(function (r) { if (f && r.status !== f) { return; }"
+            + "  var tr = document.createElement('tr'); tr.className = 'row ' + r.status.toLowerCase();"
+            + "  [r.id, r.name, r.location, r.status, r.durationMs + ' ms'].forEach(function (v) {"
+            + "   var td = document.createElement('td'); td.appendChild(text(String(v))); tr.appendChild(td); });"
+            + "  tr.onclick = function () { document.getElementById('page').src = r.page; }; body.appendChild(tr); }); }"
+            + "document.getElementById('summary').appendChild(text(rows.length + ' scenarios'"
+            + " + (summary ? ': ' + JSON.stringify(summary) : ' (run in progress)')));"
+            + "document.getElementById('filter').onchange = render; render();"
+            + "</script></body></html>";
+}
@@ -2,59 +2,89 @@ package stepDefinitions;
 
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.*;
 import org.openqa.selenium.WebDriver;
 import pages.BookStorePage;
 import pages.LoginPage;
 import utilities.BaseClass;
-import utilities.SeleniumTestBase;
+import utilities.BrowserPool;
+import utilities.LoginStateCache;
+import utilities.NetworkProfile;
 
 /**
  * Step definitions for the Book Store Demo application.
  * This class contains the implementation of Cucumber steps for interacting with the Book Store application.
  */
 public class BookStoreDemoStepDefinitions extends BaseClass {
-    SeleniumTestBase seleniumTestBase = new SeleniumTestBase();
-    static WebDriver driver;
+    WebDriver driver;
     LoginPage loginPage;
     BookStorePage bookStorePage;
+    String applicationUrl;
+    String currentUser;
+    boolean loggedInThroughUi;
+    boolean saveLoginState;
 
     /**
-     * Sets up the browser and initializes page objects before each test.
+     * Leases a browser from the pool and initializes page objects before each test.
      * This hook runs only for scenarios tagged with @BookStoreDemo.
      */
     @Before("@BookStoreDemo")
     public void setUp() {
-        driver = seleniumTestBase.browserSetup();
-        loginPage = new LoginPage(driver);
-        bookStorePage = new BookStorePage(driver);
+        driver = BrowserPool.lease();
+        loginPage = new LoginPage();
+        bookStorePage = new BookStorePage();
     }
 
     /**
-     * Closes the browser after each test.
+     * Saves the login state of a scenario that logged in through the UI and is still logged in, reports the network
+     * profile counters and returns the browser to the pool after each test.
      * This hook runs only for scenarios tagged with @BookStoreDemo.
+     * @param scenario The current Cucumber scenario being executed.
      */
     @After("@BookStoreDemo")
-    public void tearDown() {
-        seleniumTestBase.closeBrowser();
+    public void tearDown(Scenario scenario) {
+        if (saveLoginState && !scenario.isFailed()) {
+            LoginStateCache.save(currentUser, driver);
+        }
+        NetworkProfile.reportAndReset(driver);
+        BrowserPool.release(driver);
     }
 
     /**
      * Navigates the user to the Book Store application login page using the provided URL.
+     * When the login state cache is enabled, navigation is deferred to the login step,
+     * which may restore a cached session instead.
      * @param string The URL of the Book Store application.
      */
     @Given("User navigate to the book store application login with url {string}")
     public void User_navigate_to_the_book_store_application_login_with_url(String string) {
-        loginPage.NavigateToBookStoreApplication(string);
+        applicationUrl = string;
+        if (!LoginStateCache.isCacheEnabled()) {
+            loginPage.NavigateToBookStoreApplication(string);
+        }
     }
 
     /**
      * Logs the user into the application using the provided username and password.
+     * A cached login state for the user is restored if available, otherwise the login form is used.
      * @param username The username to log in with.
      * @param password The password to log in with.
      */
     @Given("User log in to the application with username {string} and password {string}")
     public void User_log_in_to_the_application_with_username_and_password(String username, String password) {
+        currentUser = username;
+        if (LoginStateCache.isCacheEnabled()) {
+            if (LoginStateCache.restore(username, driver)) {
+                if (bookStorePage.isLoggedIn()) {
+                    return;
+                }
+                infoLog("Cached login state for " + username + " was rejected, logging in through the UI");
+                LoginStateCache.evict(username);
+            }
+            loginPage.NavigateToBookStoreApplication(applicationUrl);
+        }
+        loggedInThroughUi = true;
         loginPage.EnterUsername(username);
         loginPage.EnterPassword(password);
         loginPage.ClickLoginButton();
@@ -75,11 +105,14 @@ public class BookStoreDemoStepDefinitions extends BaseClass {
 
     /**
      * Verifies that the search book field is displayed on the Book Store page.
+     * After a UI login this marks the session to be saved to the login state cache at the end of the scenario,
+     * unless the scenario logs out first.
      */
     @Then("User should see a search book field")
     public void User_should_see_a_search_book_field() {
         if (bookStorePage.isSearchBoxDisplayed()) {
             passLog("Search box is displayed");
+            saveLoginState = loggedInThroughUi && LoginStateCache.isCacheEnabled();
         } else {
             failLog("Search box is not displayed");
         }
@@ -87,10 +120,17 @@ public class BookStoreDemoStepDefinitions extends BaseClass {
 
     /**
      * Logs the user out of the application.
+     * The session is ended, so it is not saved; if it was restored from the login state cache, the cached state
+     * holds this very session and is evicted. A cached state saved by another scenario holds another session and is
+     * kept.
      */
     @Then("User should logout from the application")
     public void User_should_logout_from_the_application() {
         bookStorePage.clickLogoutButton();
+        saveLoginState = false;
+        if (currentUser != null && !loggedInThroughUi && LoginStateCache.isCacheEnabled()) {
+            LoginStateCache.evict(currentUser);
+        }
     }
 
     /**
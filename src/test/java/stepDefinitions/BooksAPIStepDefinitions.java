@@ -5,6 +5,9 @@ import io.cucumber.java.en.*;
 import utilities.APIUtil;
 import utilities.BaseClass;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Step definitions for interacting with the Books API.
  * This class contains the implementation of Cucumber steps for sending API requests
@@ -12,6 +15,7 @@ import utilities.BaseClass;
  */
 public class BooksAPIStepDefinitions extends BaseClass {
     Response response;
+    List<APIUtil.TimedResponse> responses;
 
     /**
      * Sends a GET request to the specified API endpoint.
@@ -45,4 +49,39 @@ public class BooksAPIStepDefinitions extends BaseClass {
     public void User_send_a_get_request_to_the_api_endpoint(String url, String isbn) {
         response = APIUtil.getResponse(url + isbn);
     }
-}
\ No newline at end of file
+
+    /**
+     * Sends GET requests for several ISBNs concurrently.
+     * @param url The base URL of the API endpoint.
+     * @param isbns The ISBNs to append to the URL, one request each.
+     */
+    @When("User sends concurrent GET requests to the API endpoint {string} for the ISBNs")
+    public void User_sends_concurrent_get_requests_for_the_isbns(String url, List<String> isbns) {
+        List<String> urls = new ArrayList<>();
+        for (String isbn : isbns) {
+            urls.add(url + isbn);
+        }
+        responses = APIUtil.getResponses(urls);
+    }
+
+    /**
+     * Validates that every concurrent request got the expected status code and logs the timing of each request.
+     * @param statusCode The expected status code.
+     */
+    @Then("every response should have status code {int}")
+    public void Every_response_should_have_status_code(Integer statusCode) {
+        List<String> failures = new ArrayList<>();
+        for (APIUtil.TimedResponse result : responses) {
+            String status = result.getResponse() == null ? String.valueOf(result.getError()) : String.valueOf(result.getResponse().getStatusCode());
+            infoLog(result.getUrl() + "\t" + status + "\t" + result.getDurationMillis() + " ms");
+            if (result.getResponse() == null || result.getResponse().getStatusCode() != statusCode) {
+                failures.add(result.getUrl() + " -> " + status);
+            }
+        }
+        if (failures.isEmpty()) {
+            passLog("All " + responses.size() + " responses have status code " + statusCode);
+        } else {
+            failLog("Expected status code: " + statusCode + ", but got: " + String.join(", ", failures));
+        }
+    }
+}
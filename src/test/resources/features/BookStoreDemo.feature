@@ -15,7 +15,7 @@ Feature:  Book Store Demo UI Application
       | user1       | Password1   |
       | user2       | Password2   |
 
-  @smoke
+  @smoke @ui_login
   Scenario Outline: Login and validate correct credentials
     Given User log in to the application with username "<username>" and password "<password>"
     Then User should see a search book field
@@ -25,12 +25,13 @@ Feature:  Book Store Demo UI Application
       | user3       | Password@1   |
       | user4       | Password@4   |
 
+  # Stays logged in, so the session is saved to the login state cache and later runs of this scenario within
+  # login_state_ttl_minutes (reruns, performance runs) restore it instead of using the login form
   @smoke
   Scenario Outline: Login and get a book
     Given User log in to the application with username "<username>" and password "<password>"
     Then User should see a search book field
     And User should see a list of books
-    And User should logout from the application
     Examples:
       | username    | password     |
       | user3       | Password@1   |
@@ -16,3 +16,16 @@ Feature: Book Store Demo API Application
         | isbn          |
         | 9781449325862 |
         | 9781449337711 |
+
+  @smoke_api
+  Scenario: Get several books concurrently using the API
+    When User sends concurrent GET requests to the API endpoint "https://demoqa.com/BookStore/v1/Book?ISBN=" for the ISBNs
+        | 9781449325862 |
+        | 9781449337711 |
+        | 9781449331818 |
+        | 9781449365035 |
+        | 9781491904244 |
+        | 9781491950296 |
+        | 9781593275846 |
+        | 9781593277574 |
+    Then every response should have status code 200